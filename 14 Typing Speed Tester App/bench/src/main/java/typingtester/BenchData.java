@@ -0,0 +1,52 @@
+package typingtester;
+
+import java.util.Random;
+
+// fixtures shared by the benchmarks
+final class BenchData {
+    private BenchData() { }
+
+    // "Beginner".."Expert" = first built in passage of that level,
+    // "10KB" / "1MB" = built in passages glued together up to that size
+    static String passage(String name) {
+        String[] builtIn = Passages.DIFFICULTY_TEXTS.get(name);
+        if (builtIn != null) return builtIn[0];
+        int size = name.endsWith("MB") ? Integer.parseInt(name.substring(0, name.length() - 2)) << 20
+                                       : Integer.parseInt(name.substring(0, name.length() - 2)) << 10;
+        String[] expert = Passages.DIFFICULTY_TEXTS.get("Expert");
+        StringBuilder sb = new StringBuilder(size + 256);
+        for (int i = 0; sb.length() < size; i++) {
+            sb.append(expert[i % expert.length]).append(' ');
+        }
+        return sb.substring(0, size);
+    }
+
+    // what a user has typed at 'fraction' of the passage, with one wrong char every 'every'
+    static String typed(String passage, double fraction, int every) {
+        char[] chars = passage.substring(0, (int) (passage.length() * fraction)).toCharArray();
+        for (int i = every - 1; i < chars.length; i += every) {
+            chars[i] = chars[i] == 'x' ? 'y' : 'x';
+        }
+        return new String(chars);
+    }
+
+    // one result a minute going back from now
+    static HistoryStore history(int size) {
+        Random random = new Random(42);
+        HistoryStore history = new HistoryStore();
+        long start = System.currentTimeMillis() - size * 60_000L;
+        for (int i = 0; i < size; i++) {
+            history.add(20 + random.nextDouble() * 80, 70 + random.nextInt(31),
+                5 + random.nextDouble() * 120, Passages.LEVELS[i & 3], 1 + i / 1000, start + i * 60_000L);
+        }
+        return history;
+    }
+
+    static PlayerProgress progress(HistoryStore history) {
+        PlayerProgress progress = new PlayerProgress();
+        for (int i = 0; i < history.size(); i++) {
+            progress.addXp(progress.recordResult(history.wpm(i), history.accuracy(i)));
+        }
+        return progress;
+    }
+}
@@ -0,0 +1,89 @@
+package typingtester;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Stats tab work that grows with the number of stored results
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HistoryBenchmark {
+    private static final HistoryCsv.Progress NO_PROGRESS = new HistoryCsv.Progress() {
+        public boolean isCancelled() { return false; }
+        public void update(long done, long total) { }
+    };
+
+    private static final WritableByteChannel NULL_CHANNEL = new WritableByteChannel() {
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+        public boolean isOpen() { return true; }
+        public void close() { }
+    };
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int historySize;
+
+    private HistoryStore history;
+    private PlayerProgress progress;
+    private HistoryTableModel tableModel;
+    private HistoryAnalytics.Snapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        history = BenchData.history(historySize);
+        progress = BenchData.progress(history);
+        tableModel = new HistoryTableModel(history);
+        snapshot = HistoryAnalytics.analyse(history);
+    }
+
+    // what the dialog costs once the analytics have caught up
+    @Benchmark
+    public String generateReport() {
+        return HistoryReport.build(snapshot, progress, history.size());
+    }
+
+    // the analytics thread's catch up at startup, per new row it's this / historySize
+    @Benchmark
+    public HistoryAnalytics.Snapshot analyseHistory() {
+        return HistoryAnalytics.analyse(history);
+    }
+
+    // what painting one screen of the Stats table costs, the newest 40 rows
+    @Benchmark
+    public void historyTableViewport(Blackhole bh) {
+        int rows = tableModel.getRowCount();
+        for (int row = Math.max(0, rows - 40); row < rows; row++) {
+            for (int column = 0; column < tableModel.getColumnCount(); column++) {
+                bh.consume(tableModel.getValueAt(row, column));
+            }
+        }
+    }
+
+    // formatting cost only, the bytes go nowhere
+    @Benchmark
+    public int exportData() throws IOException {
+        return HistoryCsv.write(NULL_CHANNEL, history, NO_PROGRESS);
+    }
+}
@@ -0,0 +1,64 @@
+package typingtester;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// a whole test pushed through the scoring engine, keystroke by keystroke
+// -p trace=<file.tskr> replays a real recording, by default it's a made up
+// one: the Expert passage typed at 80 ms a key with a typo every 20 chars,
+// each fixed with a backspace
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+    @Param({""})
+    public String trace;
+
+    private byte[] recording;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        recording = trace.isEmpty() ? synthetic() : Files.readAllBytes(Paths.get(trace));
+    }
+
+    private static byte[] synthetic() {
+        String target = BenchData.passage("Expert");
+        String typed = BenchData.typed(target, 1.0, 20);
+        TypingSession session = new TypingSession(target);
+        session.setRecording(new SessionRecording());
+        session.start();
+        long now = 0;
+        for (int i = 0; i < typed.length(); i++) {
+            session.insert(now += 80_000_000L, i, typed.substring(i, i + 1));
+            if (typed.charAt(i) != target.charAt(i)) {
+                session.remove(now += 80_000_000L, i, 1);
+                session.insert(now += 80_000_000L, i, target.substring(i, i + 1));
+            }
+        }
+        session.complete(now);
+        return session.getRecording().toByteArray();
+    }
+
+    @Benchmark
+    public SessionStats replay() throws IOException {
+        return SessionRecording.replay(recording, SessionRecording.MAX_SPEED);
+    }
+}
@@ -0,0 +1,67 @@
+package typingtester;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// per keystroke and per tick costs while a test is running
+// the user is 90% through the passage with a typo every 20 chars
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringBenchmark {
+    @Param({"Beginner", "Expert", "10KB", "1MB"})
+    public String passage;
+
+    private String target;
+    private String typed;
+    private TypingSession session;
+    private final SessionStats stats = new SessionStats();
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        target = BenchData.passage(passage);
+        typed = BenchData.typed(target, 0.9, 20);
+        session = new TypingSession(target);
+        session.start();
+        now = System.nanoTime();
+        session.insert(now, 0, typed);
+    }
+
+    // old calculateAccuracy() path - full rescan of the passage
+    @Benchmark
+    public int accuracyFullScan() {
+        return Scoring.accuracy(target, typed);
+    }
+
+    // one char typed and backspaced at the end, what the DocumentListener costs
+    @Benchmark
+    public int keystroke() {
+        int end = session.typedLength();
+        session.insert(now, end, "e");
+        session.remove(now, end, 1);
+        return session.getMistakes();
+    }
+
+    // one 100 ms uiTimer tick worth of numbers
+    @Benchmark
+    public SessionStats statsTick() {
+        now += 100_000_000L;
+        return session.snapshot(now, stats);
+    }
+}
@@ -6,11 +6,11 @@ set VERSION=1.0.0
 
 :: Compile Java source files
 echo Compiling Java source files...
-javac -d out src\*.java
+javac -encoding UTF-8 -d out src\typingtester\*.java
 
 :: Create JAR file
 echo Creating JAR file...
-jar --create --file %MAIN_JAR% --main-class TypingSpeedTester -C out .
+jar --create --file %MAIN_JAR% --main-class typingtester.TypingSpeedTester -C out .
 
 :: Package as .exe with shortcut and Start Menu
 echo Packaging as .exe...
@@ -0,0 +1,83 @@
+#!/bin/sh
+# Linux/macOS counterpart of build.bat: instead of a jpackage installer it
+# builds a trimmed runtime with jlink and two class data sharing archives,
+# one for the JDK classes and one (AppCDS) for the classes the app loads up
+# to its first frame, so a cold start maps classes instead of parsing them
+#
+#   ./build.sh            -> build/image, start with build/image/bin/typingtester
+#   ./build.sh --measure  -> also prints time to first frame, plain JVM vs the image
+#
+# the AppCDS training run opens the window, so it needs a display; without
+# one the image still gets the JDK archive
+set -e
+cd "$(dirname "$0")"
+MAIN_JAR=TypingTestApp.jar
+IMAGE=build/image
+RUNS=5
+
+echo "Compiling Java source files..."
+rm -rf out
+javac -encoding UTF-8 -d out src/typingtester/*.java
+
+echo "Creating JAR file..."
+jar --create --file $MAIN_JAR --main-class typingtester.TypingSpeedTester -C out .
+
+echo "Linking the runtime..."
+MODULES=$(jdeps --print-module-deps --ignore-missing-deps $MAIN_JAR)
+rm -rf $IMAGE
+# no --compress: compressed modules save disk but cost time on every class load
+jlink --add-modules "$MODULES" --strip-debug --no-header-files --no-man-pages --output $IMAGE
+mkdir -p $IMAGE/app
+cp $MAIN_JAR $IMAGE/app/
+APP="$(cd $IMAGE/app && pwd)"
+echo "  $MODULES, $(du -sh $IMAGE | cut -f1)"
+
+echo "Archiving the JDK classes..."
+$IMAGE/bin/java -Xshare:dump > /dev/null
+
+# AppCDS only maps the archive when the class path is spelled the way it was
+# at dump time, the launchers and the training run both use the image's
+# absolute app/TypingTestApp.jar
+launcher() {
+    cat > $IMAGE/bin/$1 <<EOF
+#!/bin/sh
+HOME_DIR="\$(cd "\$(dirname "\$0")/.." && pwd)"
+APP="\$HOME_DIR/app"
+if [ -f "\$APP/app.jsa" ]; then
+    exec "\$HOME_DIR/bin/java" "-XX:SharedArchiveFile=\$APP/app.jsa" \$JAVA_OPTS -cp "\$APP/$MAIN_JAR" $2 "\$@"
+fi
+exec "\$HOME_DIR/bin/java" \$JAVA_OPTS -cp "\$APP/$MAIN_JAR" $2 "\$@"
+EOF
+    chmod +x $IMAGE/bin/$1
+}
+launcher typingtester typingtester.TypingSpeedTester
+launcher typingtester-console typingtester.ConsoleTypingTest
+
+if [ -n "$DISPLAY" ] || [ -n "$WAYLAND_DISPLAY" ]; then
+    echo "Training the AppCDS archive..."
+    # a scratch data directory, the training run shouldn't touch real history
+    rm -rf build/training
+    $IMAGE/bin/java "-XX:ArchiveClassesAtExit=$APP/app.jsa" "-Dtypingtester.data=$PWD/build/training" \
+        -Dtypingtester.firstFrameExit=true -cp "$APP/$MAIN_JAR" typingtester.TypingSpeedTester > /dev/null
+    rm -rf build/training
+else
+    echo "No display, skipping the AppCDS training run"
+fi
+
+if [ "$1" = "--measure" ]; then
+    if [ -z "$DISPLAY" ] && [ -z "$WAYLAND_DISPLAY" ]; then
+        echo "--measure needs a display"
+        exit 1
+    fi
+    echo "Time to first frame, $RUNS runs each:"
+    echo "  java -jar $MAIN_JAR"
+    for i in $(seq $RUNS); do
+        java -Dtypingtester.firstFrameExit=true -jar $MAIN_JAR | sed 's/^/    /'
+    done
+    echo "  $IMAGE/bin/typingtester"
+    for i in $(seq $RUNS); do
+        JAVA_OPTS=-Dtypingtester.firstFrameExit=true $IMAGE/bin/typingtester | sed 's/^/    /'
+    done
+fi
+
+echo "Done! Start it with $IMAGE/bin/typingtester (or typingtester-console over ssh)"
@@ -0,0 +1,145 @@
+package typingtester;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// live numbers for remote monitoring over JMX
+// the EDT only ever bumps LongAdders / writes volatiles, the sums and
+// averages are worked out when a JMX client reads an attribute
+class AppMetrics implements AppMetricsMBean {
+    static final String OBJECT_NAME = "typingtester:type=AppMetrics";
+
+    private final LongAdder totalTests = new LongAdder();
+    private final LongAdder totalKeystrokes = new LongAdder();
+    private final LongAdder totalMistakes = new LongAdder();
+    private volatile double currentWpm, bestWpm, keystrokesPerSecond;
+    private volatile int currentMistakes;
+
+    private final LongAdder uiTicks = new LongAdder();
+    private final LongAdder uiTickNanos = new LongAdder();
+    private final LongAccumulator uiTickMax = new LongAccumulator(Long::max, 0);
+
+    private final LongAdder edtEvents = new LongAdder();
+    private final LongAdder edtNanos = new LongAdder();
+    private final LongAccumulator edtMax = new LongAccumulator(Long::max, 0);
+
+    private final LongAdder exports = new LongAdder();
+    private final LongAdder exportNanos = new LongAdder();
+    private volatile long lastExportNanos;
+
+    private volatile IntSupplier historySize = () -> 0;
+
+    // registers with the platform MBean server, a failed registration only costs
+    // the remote view - the counters still work
+    static AppMetrics register() {
+        AppMetrics metrics = new AppMetrics();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // a second window in the same JVM, the first one is reported
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        return metrics;
+    }
+
+    // times every event the EDT dispatches from here on
+    void timeEdtDispatch() {
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(new EventQueue() {
+            @Override
+            protected void dispatchEvent(AWTEvent event) {
+                long start = System.nanoTime();
+                try {
+                    super.dispatchEvent(event);
+                } finally {
+                    long took = System.nanoTime() - start;
+                    edtEvents.increment();
+                    edtNanos.add(took);
+                    edtMax.accumulate(took);
+                }
+            }
+        });
+    }
+
+    void historySize(IntSupplier size) {
+        historySize = size;
+    }
+
+    void keystroke() {
+        totalKeystrokes.increment();
+    }
+
+    void sessionTick(double wpm, int keystrokes, int mistakes, double seconds) {
+        currentWpm = wpm;
+        currentMistakes = mistakes;
+        keystrokesPerSecond = seconds > 0 ? keystrokes / seconds : 0;
+    }
+
+    void testCompleted(double wpm, int mistakes, double bestWpm) {
+        totalTests.increment();
+        totalMistakes.add(mistakes);
+        currentWpm = wpm;
+        currentMistakes = mistakes;
+        this.bestWpm = bestWpm;
+    }
+
+    void uiTick(long nanos) {
+        uiTicks.increment();
+        uiTickNanos.add(nanos);
+        uiTickMax.accumulate(nanos);
+    }
+
+    void exportFinished(long nanos) {
+        exports.increment();
+        exportNanos.add(nanos);
+        lastExportNanos = nanos;
+    }
+
+    private static double average(LongAdder total, LongAdder count, double unit) {
+        long n = count.sum();
+        return n == 0 ? 0 : total.sum() / unit / n;
+    }
+
+    @Override public long getTotalTests() { return totalTests.sum(); }
+    @Override public double getCurrentWpm() { return currentWpm; }
+    @Override public double getBestWpm() { return bestWpm; }
+    @Override public double getKeystrokesPerSecond() { return keystrokesPerSecond; }
+    @Override public long getTotalKeystrokes() { return totalKeystrokes.sum(); }
+    @Override public int getCurrentMistakes() { return currentMistakes; }
+    @Override public long getTotalMistakes() { return totalMistakes.sum(); }
+
+    @Override public long getUiTicks() { return uiTicks.sum(); }
+    @Override public double getUiTickAverageMicros() { return average(uiTickNanos, uiTicks, 1e3); }
+    @Override public double getUiTickMaxMicros() { return uiTickMax.get() / 1e3; }
+
+    @Override public long getEdtEvents() { return edtEvents.sum(); }
+    @Override public double getEdtDispatchAverageMicros() { return average(edtNanos, edtEvents, 1e3); }
+    @Override public double getEdtDispatchMaxMicros() { return edtMax.get() / 1e3; }
+
+    @Override public int getHistorySize() { return historySize.getAsInt(); }
+
+    @Override public long getExports() { return exports.sum(); }
+    @Override public double getLastExportMillis() { return lastExportNanos / 1e6; }
+    @Override public double getExportAverageMillis() { return average(exportNanos, exports, 1e6); }
+
+    @Override
+    public void resetTimings() {
+        uiTicks.reset();
+        uiTickNanos.reset();
+        uiTickMax.reset();
+        edtEvents.reset();
+        edtNanos.reset();
+        edtMax.reset();
+        exports.reset();
+        exportNanos.reset();
+        lastExportNanos = 0;
+    }
+}
@@ -0,0 +1,30 @@
+package typingtester;
+
+// what jconsole / VisualVM see under typingtester:type=AppMetrics
+// (JMX only introspects public interfaces, hence public here)
+public interface AppMetricsMBean {
+    long getTotalTests();
+    double getCurrentWpm();
+    double getBestWpm();
+    double getKeystrokesPerSecond();
+    long getTotalKeystrokes();
+    int getCurrentMistakes();
+    long getTotalMistakes();
+
+    long getUiTicks();
+    double getUiTickAverageMicros();
+    double getUiTickMaxMicros();
+
+    long getEdtEvents();
+    double getEdtDispatchAverageMicros();
+    double getEdtDispatchMaxMicros();
+
+    int getHistorySize();
+
+    long getExports();
+    double getLastExportMillis();
+    double getExportAverageMillis();
+
+    // zeroes the timing counters (ticks, EDT, exports), the test counters stay
+    void resetTimings();
+}
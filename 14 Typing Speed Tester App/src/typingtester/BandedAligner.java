@@ -0,0 +1,216 @@
+package typingtester;
+
+// accuracy by alignment instead of by position: a skipped or doubled char is
+// one mistake instead of making everything after it wrong
+// it's the edit distance DP between the typed text and the prompt, but only
+// a band of cells (Ukkonen style) - row J is "after J typed chars" and holds
+// 2*BAND+1 cells, so a char typed at the end costs one row, a backspace at the
+// end costs nothing, and an edit further back redoes the rows from there on
+// each row's band is centered one column past the previous row's best cell
+// instead of on the diagonal, so a few skipped words don't push the rest out
+// every cell also carries the matches on its path, which is all that's needed
+// to split the distance into substituted / inserted / omitted
+//
+// rows live in a ring of the last MAX_ROWS, memory stays flat for any passage;
+// an edit further back than that starts over from the first row
+// rows and columns are absolute (retired chars included), the diff's window
+// starts at 'base'. a skipped stretch has to stay inside the band until it's
+// the cheapest path, which holds for skips up to about BAND / 2 chars (a
+// whole word). a longer jump can't be followed and the text after it shows up
+// as substitutions and inserts
+class BandedAligner {
+    static final int BAND = 16;
+    private static final int WIDTH = 2 * BAND + 1;
+    private static final int MAX_ROWS = 4096; // power of two
+    private static final int INF = Integer.MAX_VALUE / 2;
+
+    private final DiffEngine diff;
+    private final int[] cost = new int[MAX_ROWS * WIDTH];
+    private final int[] matches = new int[MAX_ROWS * WIDTH];
+    private final int[] center = new int[MAX_ROWS]; // prompt column in the middle of each row's band
+    private final char[] tail = new char[BAND]; // last retired prompt chars, for the band just behind base
+    private int tailLength = 0;
+    private int base = 0;   // chars retired from both sides
+    private int last = 0;   // newest row = chars typed so far
+    private int oldest = 0; // oldest row still in the ring
+
+    BandedAligner(DiffEngine diff) {
+        this.diff = diff;
+    }
+
+    // start over on whatever the diff holds now, nothing retired
+    void reset() {
+        base = 0;
+        tailLength = 0;
+        oldest = 0;
+        firstRow();
+        last = 0;
+        recompute(1);
+    }
+
+    // after an edit at window offset 'offset'
+    void edited(int offset) {
+        int from = base + offset + 1;
+        if (from - 1 < oldest) {
+            if (base == 0) {
+                // the edit is behind the ring, go again from the top
+                oldest = 0;
+                firstRow();
+                from = 1;
+            } else {
+                from = oldest + 1;
+            }
+        }
+        recompute(from);
+    }
+
+    // the window's prompt grew from oldLength chars, rows whose band reached
+    // past the old end have to be redone
+    void targetGrew(int oldLength) {
+        int oldEnd = base + oldLength;
+        int from = last + 1;
+        for (int row = last; row > oldest; row--) {
+            if (center[row & (MAX_ROWS - 1)] + BAND >= oldEnd) from = row;
+        }
+        if (from > last) return;
+        if (from <= base) {
+            if (base == 0) {
+                oldest = 0;
+                firstRow();
+            }
+            from = base + 1;
+        }
+        recompute(Math.max(from, oldest + 1));
+    }
+
+    // call before the diff drops its first n chars, the prompt chars are still there
+    void retire(int n) {
+        String target = diff.getTarget();
+        for (int i = 0; i < n; i++) {
+            if (tailLength == BAND) {
+                System.arraycopy(tail, 1, tail, 0, BAND - 1);
+                tailLength--;
+            }
+            tail[tailLength++] = target.charAt(i);
+        }
+        base += n;
+        oldest = Math.max(oldest, base);
+    }
+
+    private void firstRow() {
+        int targetLength = diff.getTarget().length();
+        center[0] = 0;
+        for (int c = 0; c < WIDTH; c++) {
+            int col = c - BAND;
+            boolean valid = col >= 0 && col <= targetLength;
+            cost[c] = valid ? col : INF; // the prompt so far skipped
+            matches[c] = 0;
+        }
+    }
+
+    private void recompute(int from) {
+        last = base + diff.length();
+        for (int row = from; row <= last; row++) {
+            computeRow(row);
+        }
+        oldest = Math.max(oldest, last - MAX_ROWS + 1);
+    }
+
+    private void computeRow(int row) {
+        int prev = slot(row - 1), cur = slot(row);
+        int prevCenter = center[(row - 1) & (MAX_ROWS - 1)];
+        int prevBest = best(prev);
+        int rowCenter = prevCenter - BAND + prevBest + 1;
+        center[row & (MAX_ROWS - 1)] = rowCenter;
+        // a column sits 'shift' cells further right in the previous row than in this one
+        int shift = rowCenter - prevCenter;
+        String target = diff.getTarget();
+        int firstCol = Math.max(0, base - tailLength);
+        int lastCol = base + target.length();
+        char typed = diff.charAt(row - 1 - base);
+        boolean reachable = false;
+        for (int c = 0; c < WIDTH; c++) {
+            int col = rowCenter - BAND + c;
+            int best = INF, bestMatches = 0;
+            if (col >= firstCol && col <= lastCol) {
+                // typed char against prompt char col - 1
+                int diagonal = c + shift - 1;
+                if (col - 1 >= firstCol && diagonal >= 0 && diagonal < WIDTH && cost[prev + diagonal] < INF) {
+                    int local = col - 1 - base;
+                    char expected = local >= 0 ? target.charAt(local) : tail[tailLength + local];
+                    boolean same = typed == expected;
+                    best = cost[prev + diagonal] + (same ? 0 : 1);
+                    bestMatches = matches[prev + diagonal] + (same ? 1 : 0);
+                }
+                // typed char that isn't in the prompt
+                int up = c + shift;
+                if (up >= 0 && up < WIDTH && cost[prev + up] + 1 < best) {
+                    best = cost[prev + up] + 1;
+                    bestMatches = matches[prev + up];
+                } else if (up >= 0 && up < WIDTH && cost[prev + up] + 1 == best) {
+                    bestMatches = Math.max(bestMatches, matches[prev + up]);
+                }
+                // prompt char that got skipped
+                if (c > 0 && cost[cur + c - 1] + 1 < best) {
+                    best = cost[cur + c - 1] + 1;
+                    bestMatches = matches[cur + c - 1];
+                } else if (c > 0 && cost[cur + c - 1] + 1 == best) {
+                    bestMatches = Math.max(bestMatches, matches[cur + c - 1]);
+                }
+            }
+            cost[cur + c] = best;
+            matches[cur + c] = bestMatches;
+            reachable |= best < INF;
+        }
+        if (!reachable) {
+            // the band fell behind what's left of the prompt (more extra chars
+            // than the retired tail covers) - go on from the previous row's best
+            // cell, the prompt chars jumped over count as skipped
+            int fromCol = prevCenter - BAND + prevBest;
+            int col = Math.max(firstCol, fromCol);
+            center[row & (MAX_ROWS - 1)] = col;
+            cost[cur + BAND] = cost[prev + prevBest] + 1 + (col - fromCol);
+            matches[cur + BAND] = matches[prev + prevBest];
+        }
+    }
+
+    private static int slot(int row) {
+        return (row & (MAX_ROWS - 1)) * WIDTH;
+    }
+
+    // cheapest cell of a row, ties go to the path with more matches and then to
+    // the one furthest into the prompt. the leftmost would stall the band on
+    // "typed an extra char" while a skipped word's path runs off its right edge
+    // the middle one if nothing in the row is reachable
+    private int best(int row) {
+        int best = -1;
+        for (int c = 0; c < WIDTH; c++) {
+            if (cost[row + c] >= INF) continue;
+            if (best < 0 || cost[row + c] < cost[row + best]
+                    || cost[row + c] == cost[row + best] && matches[row + c] >= matches[row + best]) {
+                best = c;
+            }
+        }
+        return best < 0 ? BAND : best;
+    }
+
+    // counts for the cheapest place the typing has reached in the prompt, returns the accuracy
+    int fill(SessionStats into) {
+        int row = slot(last);
+        int best = best(row);
+        if (cost[row + best] >= INF) {
+            into.correctChars = into.substitutedChars = into.insertedChars = into.omittedChars = 0;
+            return 100;
+        }
+        int typed = last, reached = center[last & (MAX_ROWS - 1)] - BAND + best;
+        int m = matches[row + best], distance = cost[row + best];
+        // typed = m + sub + ins, reached = m + sub + omit, distance = sub + ins + omit
+        int substituted = (typed - m) + (reached - m) - distance;
+        into.correctChars = m;
+        into.substitutedChars = substituted;
+        into.insertedChars = typed - m - substituted;
+        into.omittedChars = reached - m - substituted;
+        int total = typed + into.omittedChars;
+        return total == 0 ? 100 : (int) (m * 100L / total);
+    }
+}
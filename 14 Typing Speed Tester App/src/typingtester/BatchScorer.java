@@ -0,0 +1,275 @@
+package typingtester;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// scores typed transcripts in bulk with the GUI's rules, csv out
+//   BatchScorer [--threads n] [--out results.csv] <file|directory|zip>...
+//
+// a transcript file (.tsv) has one record per line, tab separated:
+//   seconds <tab> prompt <tab> typed
+// with \t, \n and \\ escaped inside the texts, blank and # lines skipped.
+// directories are walked for .tsv files, zips are read entry by entry
+//
+// every record goes through a TypingSession (typed in one go, completed at
+// 'seconds'), so WPM, the aligned accuracy and the skill level are exactly
+// what completeTest would show, plus Scoring.completionXp
+//
+// the reader thread only cuts raw lines into chunks. chunks are parsed and
+// scored on a fork/join pool, each worker reusing its own session, stats and
+// row buffer. at most WINDOW_PER_THREAD chunks per thread are in flight and
+// they're written in input order, so memory stays flat however big the input
+class BatchScorer {
+    static final String HEADER = "Source,Record,Seconds,WPM,Accuracy,Skill Level,XP,Correct,Substituted,Inserted,Omitted";
+    static final String EXTENSION = ".tsv";
+    private static final int CHUNK = 1024;          // records per task
+    private static final int WINDOW_PER_THREAD = 4; // chunks queued or running per pool thread
+
+    // one per pool thread, reused for every record it scores
+    private static final class Worker {
+        final TypingSession session = new TypingSession("");
+        final StringBuilder text = new StringBuilder(1024);
+        final StringBuilder row = new StringBuilder(CHUNK * 64);
+    }
+
+    private static final ThreadLocal<Worker> WORKERS = ThreadLocal.withInitial(Worker::new);
+
+    // raw lines of one source, parsed by whoever scores them
+    private static final class Chunk {
+        final String source;
+        final String[] lines = new String[CHUNK];
+        final long[] records = new long[CHUNK]; // line numbers
+        int size;
+
+        Chunk(String source) {
+            this.source = source;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int window;
+    private final ArrayDeque<ForkJoinTask<String>> inFlight = new ArrayDeque<>();
+    private final Writer out;
+    private final AtomicLong scored = new AtomicLong(), skipped = new AtomicLong();
+
+    BatchScorer(ForkJoinPool pool, Writer out) {
+        this.pool = pool;
+        this.window = pool.getParallelism() * WINDOW_PER_THREAD;
+        this.out = out;
+    }
+
+    long scored() {
+        return scored.get();
+    }
+
+    // malformed, or nothing typed (the GUI never completes such a test)
+    long skipped() {
+        return skipped.get();
+    }
+
+    // a .tsv file, a directory of them or a zip holding them
+    void score(Path input) throws IOException {
+        if (Files.isDirectory(input)) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(input)) {
+                files = walk.filter(p -> p.toString().endsWith(EXTENSION) && Files.isRegularFile(p))
+                    .sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                try (InputStream in = Files.newInputStream(file)) {
+                    score(input.relativize(file).toString(), in);
+                }
+            }
+        } else if (input.toString().endsWith(".zip")) {
+            try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(input))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (!entry.isDirectory() && entry.getName().endsWith(EXTENSION)) {
+                        score(input.getFileName() + "!" + entry.getName(), zip);
+                    }
+                }
+            }
+        } else {
+            try (InputStream in = Files.newInputStream(input)) {
+                score(input.getFileName().toString(), in);
+            }
+        }
+    }
+
+    // leaves 'in' open, zip entries share one stream
+    void score(String source, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        long lineNumber = 0;
+        Chunk chunk = new Chunk(source);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isEmpty() || line.charAt(0) == '#') continue;
+            chunk.lines[chunk.size] = line;
+            chunk.records[chunk.size++] = lineNumber;
+            if (chunk.size == CHUNK) {
+                submit(chunk);
+                chunk = new Chunk(source);
+            }
+        }
+        if (chunk.size > 0) submit(chunk);
+    }
+
+    private void submit(Chunk chunk) throws IOException {
+        while (inFlight.size() >= window) {
+            writeOldest();
+        }
+        inFlight.add(pool.submit(() -> scoreChunk(chunk)));
+    }
+
+    private void writeOldest() throws IOException {
+        out.write(inFlight.poll().join());
+    }
+
+    // waits for everything submitted and writes it
+    void finish() throws IOException {
+        while (!inFlight.isEmpty()) {
+            writeOldest();
+        }
+        out.flush();
+    }
+
+    private String scoreChunk(Chunk chunk) {
+        Worker worker = WORKERS.get();
+        StringBuilder row = worker.row;
+        row.setLength(0);
+        String source = csv(chunk.source);
+        int ok = 0;
+        for (int i = 0; i < chunk.size; i++) {
+            if (scoreLine(worker, chunk.lines[i], source, chunk.records[i])) ok++;
+        }
+        // once per chunk, the workers don't meet on the counters per record
+        scored.addAndGet(ok);
+        skipped.addAndGet(chunk.size - ok);
+        return row.toString();
+    }
+
+    // appends the row, false (and nothing appended) if the line doesn't parse or has nothing typed
+    private static boolean scoreLine(Worker worker, String line, String source, long record) {
+        int tab1 = line.indexOf('\t');
+        int tab2 = tab1 < 0 ? -1 : line.indexOf('\t', tab1 + 1);
+        if (tab2 < 0 || line.indexOf('\t', tab2 + 1) >= 0) return false;
+        double seconds;
+        try {
+            seconds = Double.parseDouble(line.substring(0, tab1));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (!(seconds > 0) || Double.isInfinite(seconds)) return false;
+
+        StringBuilder prompt = unescape(line, tab1 + 1, tab2, worker.text);
+        if (prompt == null || tab2 + 1 == line.length()) return false;
+        TypingSession session = worker.session;
+        // clear the last record's typing before the new prompt, so it isn't re-checked against it
+        if (session.typedLength() > 0) session.remove(0, 0, session.typedLength());
+        session.setTarget(prompt.toString());
+        session.start();
+        StringBuilder typed = unescape(line, tab2 + 1, line.length(), worker.text);
+        if (typed == null) return false;
+        session.insert(0, 0, typed);
+        SessionStats stats = session.complete((long) (seconds * 1e9));
+
+        StringBuilder row = worker.row;
+        row.append(source).append(',').append(record).append(',');
+        appendTenths(row, seconds).append(',');
+        appendTenths(row, stats.wpm).append(',');
+        row.append(stats.accuracy).append(',').append(stats.skillLevel).append(',');
+        appendTenths(row, Scoring.completionXp(stats.wpm, stats.accuracy)).append(',');
+        row.append(stats.correctChars).append(',').append(stats.substitutedChars).append(',')
+           .append(stats.insertedChars).append(',').append(stats.omittedChars).append('\n');
+        return true;
+    }
+
+    // into the worker's buffer, null for a dangling backslash
+    private static StringBuilder unescape(String line, int from, int to, StringBuilder into) {
+        into.setLength(0);
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c == '\\') {
+                if (++i == to) return null;
+                char e = line.charAt(i);
+                c = e == 't' ? '\t' : e == 'n' ? '\n' : e;
+            }
+            into.append(c);
+        }
+        return into;
+    }
+
+    // one decimal without going through String.format
+    private static StringBuilder appendTenths(StringBuilder sb, double value) {
+        long tenths = Math.round(value * 10);
+        if (tenths < 0) {
+            sb.append('-');
+            tenths = -tenths;
+        }
+        return sb.append(tenths / 10).append('.').append(tenths % 10);
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path outFile = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                threads = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--out") && i + 1 < args.length) {
+                outFile = Paths.get(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty() || threads < 1) {
+            System.err.println("usage: BatchScorer [--threads n] [--out results.csv] <file.tsv|directory|archive.zip>...");
+            System.exit(2);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try (Writer out = new BufferedWriter(outFile == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(outFile, StandardCharsets.UTF_8), 1 << 16)) {
+            out.write(HEADER);
+            out.write('\n');
+            BatchScorer scorer = new BatchScorer(pool, out);
+            for (Path input : inputs) {
+                scorer.score(input);
+            }
+            scorer.finish();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.err.printf("%d records scored on %d threads in %.1f s (%.0f/s)%s%n",
+                scorer.scored(), threads, seconds, scorer.scored() / seconds,
+                scorer.skipped() > 0 ? ", " + scorer.skipped() + " lines skipped (malformed or nothing typed)" : "");
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package typingtester;
+
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// the typing test in a terminal, for machines you only reach over ssh
+//   ConsoleTypingTest [difficulty] [--time seconds]
+//
+// nothing here touches AWT or Swing, so the JVM is typing-ready in about the
+// time it takes to start (TypingSpeedTester.main pays for the look and feel
+// and four tabs first). same TypingSession, same Scoring, same corpus
+//
+// the tty goes into raw mode through stty (Java has no termios), keys are read
+// byte by byte from stdin and every change redraws the screen with ANSI
+// escapes: typed chars green, mistakes red, the next char reversed.
+// the shutdown hook puts the tty back however the JVM goes down
+//
+// backspace deletes, ctrl-w deletes a word, esc or ctrl-c quits
+class ConsoleTypingTest {
+    // smaller than the GUI's, a terminal shows less at once
+    private static final int PROMPT_LOOKAHEAD = 240;
+    private static final int PROMPT_KEEP_BEHIND = 40;
+    private static final int PROMPT_RETIRE_STEP = 120;
+    private static final long TICK_MILLIS = 200; // clock redraws while typing
+
+    private static final String RESET = "\033[0m";
+    private static final String CORRECT = "\033[32m";
+    private static final String WRONG = "\033[97;41m";
+    private static final String NEXT = "\033[7m";
+    private static final String DIM = "\033[2m";
+    private static final String BOLD = "\033[1m";
+
+    private static final int CTRL_C = 3, CTRL_D = 4, BACKSPACE = 8, CTRL_W = 23, ESC = 27, DELETE = 127;
+
+    private final String difficulty;
+    private final int ordinal;
+    private final double timeLimit; // 0 = type the whole passage
+    private final PassageCorpus corpus;
+    private final Random random = new Random();
+    private final PrintStream out;
+    private final int width;
+
+    private final Object lock = new Object(); // keys on main, clock on the ticker
+    private final StringBuilder frame = new StringBuilder(4096);
+    private final SessionStats stats = new SessionStats();
+    private TypingSession session;
+    private SessionStats result; // set once the test is over
+
+    ConsoleTypingTest(String difficulty, double timeLimit, PassageCorpus corpus, PrintStream out, int width) {
+        this.difficulty = difficulty;
+        this.ordinal = Passages.levelOrdinal(difficulty);
+        this.timeLimit = timeLimit;
+        this.corpus = corpus;
+        this.out = out;
+        this.width = Math.max(20, width);
+    }
+
+    private String nextPassage() {
+        String text = corpus.pick(ordinal, random);
+        if (text == null) {
+            String[] texts = Passages.DIFFICULTY_TEXTS.get(difficulty);
+            text = texts[random.nextInt(texts.length)];
+        }
+        return text;
+    }
+
+    private void newTest() {
+        session = new TypingSession(nextPassage());
+        if (timeLimit > 0) {
+            session.setTimeLimit(timeLimit);
+            topUp();
+        }
+        session.start();
+        result = null;
+        draw();
+    }
+
+    // timed tests: same scrolling window as the GUI
+    private void topUp() {
+        if (session.typedLength() >= PROMPT_KEEP_BEHIND + PROMPT_RETIRE_STEP) {
+            session.retireTyped(PROMPT_KEEP_BEHIND);
+        }
+        while (session.untypedLength() < PROMPT_LOOKAHEAD) {
+            session.appendTarget(" " + nextPassage());
+        }
+    }
+
+    // one key (or one decoded char) from the input loop, false to quit
+    private boolean key(int c, InputStream in) throws IOException {
+        synchronized (lock) {
+            if (c == CTRL_C || c == CTRL_D) return false;
+            if (c == ESC) return skipEscapeSequence(in);
+            if (result != null) {
+                if (c == 'q' || c == 'Q') return false;
+                if (c == '\r' || c == '\n') newTest();
+                return true;
+            }
+            long now = System.nanoTime();
+            int length = session.typedLength();
+            if (c == DELETE || c == BACKSPACE) {
+                if (length > 0) session.remove(now, length - 1, 1);
+            } else if (c == CTRL_W) {
+                int from = wordStart(length);
+                if (from < length) session.remove(now, from, length - from);
+            } else if (c >= ' ') {
+                session.insert(now, length, String.valueOf(Character.toChars(c)));
+                if (session.isTimed()) topUp();
+            } else {
+                return true; // enter, tab, other control keys
+            }
+            if (session.isComplete()) {
+                finish(now);
+            } else {
+                draw();
+            }
+            return true;
+        }
+    }
+
+    // back over trailing spaces, then the word, like ctrl-w in a shell
+    private int wordStart(int length) {
+        int i = length;
+        while (i > 0 && Character.isWhitespace(session.typedChar(i - 1))) i--;
+        while (i > 0 && !Character.isWhitespace(session.typedChar(i - 1))) i--;
+        return i;
+    }
+
+    // arrow and function keys arrive as ESC [ ... or ESC O x in one read,
+    // false when it was the esc key on its own
+    private static boolean skipEscapeSequence(InputStream in) throws IOException {
+        if (in.available() == 0) return false;
+        int c = in.read();
+        if (c == 'O') {
+            in.read();
+        } else if (c == '[') {
+            while (in.available() > 0) {
+                c = in.read();
+                if (c >= 0x40 && c <= 0x7e) break;
+            }
+        }
+        return true;
+    }
+
+    private void tick() {
+        synchronized (lock) {
+            if (result != null || !session.isStarted()) return;
+            long now = System.nanoTime();
+            if (session.isTimeUp(now)) {
+                finish(now);
+            } else {
+                draw();
+            }
+        }
+    }
+
+    private void finish(long nanos) {
+        result = session.complete(nanos);
+        draw();
+    }
+
+    private void draw() {
+        SessionStats shown = result != null ? result : session.snapshot(System.nanoTime(), stats);
+        StringBuilder sb = frame;
+        sb.setLength(0);
+        sb.append("\033[H").append(BOLD).append("Typing Speed Tester").append(RESET).append(DIM)
+          .append("  ").append(difficulty);
+        if (session.isTimed()) sb.append(", ").append((int) timeLimit).append(" s");
+        sb.append(RESET).append("\033[K\r\n\033[K\r\n");
+
+        double seconds = session.isTimed() && result == null ? session.remainingSeconds(System.nanoTime()) : shown.seconds;
+        // a word in the first few hundred ms would read as hundreds of WPM
+        String wpm = result == null && shown.seconds < 1 ? "-" : String.valueOf(Math.round(shown.wpm));
+        sb.append(String.format("WPM %-4s  Accuracy %3d%%  Mistakes %-3d  %s %d:%02d",
+            wpm, shown.accuracy, shown.mistakes,
+            session.isTimed() && result == null ? "Left" : "Time", (int) seconds / 60, (int) seconds % 60));
+        sb.append("\033[K\r\n\033[K\r\n");
+        appendPrompt(sb);
+        sb.append("\033[K\r\n\033[K\r\n");
+
+        if (result != null) {
+            sb.append(BOLD).append("Done!").append(RESET).append("\033[K\r\n");
+            sb.append(String.format("  Time        %.1f s\033[K\r\n", result.seconds));
+            sb.append(String.format("  WPM         %.1f (net %.1f)\033[K\r\n", result.wpm, result.netWpm));
+            sb.append(String.format("  Accuracy    %d%%\033[K\r\n", result.accuracy));
+            sb.append(String.format("  Mistakes    %d\033[K\r\n", result.mistakes));
+            sb.append(String.format("  Keystrokes  %.0f ms median, %.0f ms p90\033[K\r\n", result.keyP50Ms, result.keyP90Ms));
+            sb.append("  Skill Level ").append(result.skillLevel).append("\033[K\r\n\033[K\r\n");
+            sb.append(DIM).append("Enter for another passage, q to quit").append(RESET);
+        } else if (!session.isStarted()) {
+            sb.append(DIM).append("Start typing to begin, esc to quit").append(RESET);
+        }
+        sb.append("\033[J");
+        out.print(sb);
+        out.flush();
+    }
+
+    // the prompt word wrapped to the terminal, colored by what's been typed.
+    // wrapping ourselves keeps the line count known, the terminal's own wrap
+    // would scroll the frame away on narrow screens
+    private void appendPrompt(StringBuilder sb) {
+        String target = session.getTarget();
+        int typed = Math.min(session.typedLength(), target.length());
+        int lineStart = 0;
+        while (lineStart < target.length()) {
+            int end = Math.min(target.length(), lineStart + width - 1);
+            if (end < target.length()) {
+                int space = target.lastIndexOf(' ', end);
+                if (space > lineStart) end = space + 1;
+            }
+            String current = null;
+            for (int i = lineStart; i < end; i++) {
+                String color = i < typed ? (session.isMismatch(i) ? WRONG : CORRECT)
+                    : i == typed && result == null ? NEXT : RESET;
+                if (color != current) {
+                    sb.append(RESET).append(color);
+                    current = color;
+                }
+                sb.append(target.charAt(i));
+            }
+            sb.append(RESET).append("\033[K\r\n");
+            lineStart = end;
+        }
+    }
+
+    // reads one utf-8 encoded char, -1 at the end of input
+    private static int readChar(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0x80) return b;
+        int more = b >= 0xf0 ? 3 : b >= 0xe0 ? 2 : b >= 0xc0 ? 1 : 0;
+        int c = b & (0x3f >> more);
+        for (int i = 0; i < more; i++) {
+            int next = in.read();
+            if (next < 0) return -1;
+            c = (c << 6) | (next & 0x3f);
+        }
+        return Character.isValidCodePoint(c) ? c : '?';
+    }
+
+    // runs stty on the controlling terminal, null if there isn't one
+    private static String stty(String... args) {
+        File tty = new File("/dev/tty");
+        if (!tty.exists()) return null;
+        String[] command = new String[args.length + 1];
+        command[0] = "stty";
+        System.arraycopy(args, 0, command, 1, args.length);
+        try {
+            Process process = new ProcessBuilder(command)
+                .redirectInput(tty)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.US_ASCII).strip();
+            return process.waitFor() == 0 ? output : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // a corpus file if there is one, the built in passages otherwise
+    private static PassageCorpus openCorpus() {
+        Path file = PassageCorpus.defaultFile();
+        if (Files.isRegularFile(file)) {
+            try {
+                return PassageCorpus.open(file);
+            } catch (IOException e) {
+                System.err.println("Can't read " + file + ", using the built in passages: " + e.getMessage());
+            }
+        }
+        return PassageCorpus.builtIn();
+    }
+
+    private static void usage() {
+        System.err.println("usage: ConsoleTypingTest [" + String.join("|", Passages.LEVELS) + "] [--time seconds]");
+        System.exit(2);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String difficulty = "Beginner";
+        double timeLimit = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--time") && i + 1 < args.length) {
+                try {
+                    timeLimit = Double.parseDouble(args[++i]);
+                } catch (NumberFormatException e) {
+                    usage();
+                }
+                if (timeLimit <= 0) usage();
+            } else {
+                String level = null;
+                for (String name : Passages.LEVELS) {
+                    if (name.equalsIgnoreCase(args[i])) level = name;
+                }
+                if (level == null) usage();
+                difficulty = level;
+            }
+        }
+
+        // the settings to restore, the width, then raw mode
+        String settings = stty("-g");
+        String size = settings == null ? null : stty("size");
+        if (settings == null || size == null || stty("raw", "-echo") == null) {
+            System.err.println("ConsoleTypingTest needs a terminal (stty on /dev/tty failed)");
+            System.exit(1);
+        }
+        PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            out.print(RESET + "\033[?25h\r\n");
+            out.flush();
+            stty(settings);
+        }));
+        int width = 80;
+        try {
+            width = Integer.parseInt(size.substring(size.indexOf(' ') + 1));
+        } catch (RuntimeException e) {
+            // stty size prints "0 0" on some terminals, keep 80
+        }
+        if (width <= 0) width = 80;
+
+        out.print("\033[2J\033[?25l"); // clear, hide the cursor (the next char shows where it is)
+        ConsoleTypingTest test = new ConsoleTypingTest(difficulty, timeLimit, openCorpus(), out, width);
+        test.newTest();
+
+        Thread ticker = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(TICK_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                test.tick();
+            }
+        }, "console-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+
+        InputStream in = System.in;
+        int c;
+        while ((c = readChar(in)) >= 0 && test.key(c, in)) {
+            // keep going
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,120 @@
+package typingtester;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+// "MM/dd HH:mm" <-> epoch millis without LocalDateTime or Strings per row
+// the zone offset is cached until the next DST transition, so a bulk
+// export/import only touches java.time once or twice
+// not thread safe - one per worker
+class DateCodec {
+    static final int DATE_LENGTH = 11; // MM/dd HH:mm
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final ZoneRules rules;
+    private long validFrom = Long.MAX_VALUE, validTo = Long.MIN_VALUE;
+    private long offsetMillis;
+
+    DateCodec() {
+        this(ZoneId.systemDefault());
+    }
+
+    DateCodec(ZoneId zone) {
+        rules = zone.getRules();
+    }
+
+    private long offsetAt(long epochMillis) {
+        if (epochMillis < validFrom || epochMillis >= validTo) {
+            Instant instant = Instant.ofEpochMilli(epochMillis);
+            offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+            // +1 so a transition exactly at epochMillis counts as the start of the window
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            validFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond() * 1000;
+            validTo = next == null ? Long.MAX_VALUE : next.toEpochSecond() * 1000;
+        }
+        return offsetMillis;
+    }
+
+    // writes MM/dd HH:mm at pos, returns the new pos
+    int format(long epochMillis, byte[] out, int pos) {
+        long local = epochMillis + offsetAt(epochMillis);
+        long days = Math.floorDiv(local, MILLIS_PER_DAY);
+        int minuteOfDay = (int) (Math.floorMod(local, MILLIS_PER_DAY) / 60_000);
+        int date = monthDay(days);
+        pos = twoDigits(date / 100, out, pos);
+        out[pos++] = '/';
+        pos = twoDigits(date % 100, out, pos);
+        out[pos++] = ' ';
+        pos = twoDigits(minuteOfDay / 60, out, pos);
+        out[pos++] = ':';
+        return twoDigits(minuteOfDay % 60, out, pos);
+    }
+
+    // the date has no year, so it's the latest one that isn't in the future
+    // returns -1 if the bytes aren't MM/dd HH:mm
+    long parse(byte[] in, int pos, int length, int year, long now) {
+        if (length != DATE_LENGTH || in[pos + 2] != '/' || in[pos + 5] != ' ' || in[pos + 8] != ':') return -1;
+        int month = twoDigits(in, pos), day = twoDigits(in, pos + 3);
+        int hour = twoDigits(in, pos + 6), minute = twoDigits(in, pos + 9);
+        if (month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23 || minute < 0 || minute > 59) return -1;
+        long epoch = toEpoch(year, month, day, hour, minute);
+        if (epoch > now + MILLIS_PER_DAY) {
+            epoch = toEpoch(year - 1, month, day, hour, minute);
+        }
+        return epoch;
+    }
+
+    private long toEpoch(int year, int month, int day, int hour, int minute) {
+        long local = daysFromCivil(year, month, day) * MILLIS_PER_DAY + (hour * 60L + minute) * 60_000L;
+        return local - offsetAt(local - offsetMillis);
+    }
+
+    int year(long epochMillis) {
+        long days = Math.floorDiv(epochMillis + offsetAt(epochMillis), MILLIS_PER_DAY);
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        return (int) (yoe + era * 400 + (mp >= 10 ? 1 : 0));
+    }
+
+    // month * 100 + day for a day count since 1970-01-01 (Hinnant's civil_from_days)
+    private static int monthDay(long days) {
+        long z = days + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        return month * 100 + day;
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    private static int twoDigits(int value, byte[] out, int pos) {
+        out[pos] = (byte) ('0' + value / 10);
+        out[pos + 1] = (byte) ('0' + value % 10);
+        return pos + 2;
+    }
+
+    private static int twoDigits(byte[] in, int pos) {
+        int tens = in[pos] - '0', ones = in[pos + 1] - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) return -100;
+        return tens * 10 + ones;
+    }
+}
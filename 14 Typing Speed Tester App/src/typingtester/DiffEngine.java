@@ -0,0 +1,230 @@
+package typingtester;
+
+// per session comparison between the prompt and what the user typed
+// keeps its own copy of the typed chars plus a mismatch bitmap so every
+// keystroke at the end of the text is O(1), no getText() on every change
+//
+// for timed tests the prompt is a window: retire() drops the typed front of
+// both sides and folds it into running totals, appendTarget() adds text at the
+// back - offsets and isMismatch() are relative to the window, the counters
+// (length, words, mistakes) cover everything typed
+class DiffEngine {
+    private String target;
+    private char[] typed = new char[256];
+    private long[] mismatchBits = new long[4];
+    private int length = 0;
+    private int mismatches = 0;
+    private int words = 0;       // runs of non-whitespace, kept up to date on every edit
+    private int keystrokes = 0;  // inserted chars + delete events since the last resetKeystrokes()
+    private int retiredLength = 0, retiredMismatches = 0, retiredWords = 0; // dropped off the window
+    private final BandedAligner aligner = new BandedAligner(this); // accuracy, see fillAlignment()
+
+    DiffEngine(String target) {
+        this.target = target;
+        aligner.reset();
+    }
+
+    // new prompt (difficulty change etc) - re-check whatever is already typed
+    void setTarget(String target) {
+        java.util.Arrays.fill(mismatchBits, 0L);
+        mismatches = 0;
+        this.target = target;
+        ensureCapacity(length);
+        recompute(0, 0);
+        aligner.reset();
+    }
+
+    void clear() {
+        java.util.Arrays.fill(mismatchBits, 0L);
+        length = 0;
+        mismatches = 0;
+        words = 0;
+        resetRetired();
+    }
+
+    void resetRetired() {
+        retiredLength = retiredMismatches = retiredWords = 0;
+        aligner.reset();
+    }
+
+    // more prompt at the back of the window
+    void appendTarget(CharSequence more) {
+        int oldTarget = target.length();
+        target = target + more;
+        ensureCapacity(length);
+        int limit = Math.min(length, target.length());
+        for (int i = oldTarget; i < limit; i++) {
+            if (typed[i] != target.charAt(i)) {
+                setBit(i, true);
+            }
+        }
+        aligner.targetGrew(oldTarget);
+    }
+
+    // drops the first n chars of the window from both sides, their counts live on in the totals
+    // O(window), meant to run every few hundred chars
+    void retire(int n) {
+        if (n <= 0) return;
+        if (n > length || n > target.length()) throw new IllegalArgumentException("Can't retire " + n);
+        int droppedMismatches = 0;
+        for (int i = 0; i < n; i++) {
+            if (isMismatch(i)) droppedMismatches++;
+        }
+        // the char at n may stop or start being a word start once it's at 0
+        int startsBefore = countWordStarts(0, n);
+        aligner.retire(n);
+        System.arraycopy(typed, n, typed, 0, length - n);
+        length -= n;
+        target = target.substring(n);
+        int startAfter = isWordStart(0) ? 1 : 0;
+        retiredWords += startsBefore - startAfter;
+        words -= startsBefore - startAfter;
+        retiredLength += n;
+        retiredMismatches += droppedMismatches;
+
+        java.util.Arrays.fill(mismatchBits, 0L);
+        mismatches = 0;
+        recompute(0, 0);
+    }
+
+    void resetKeystrokes() {
+        keystrokes = 0;
+    }
+
+    // text = the inserted chars only (DocumentEvent offset/length)
+    void insert(int offset, CharSequence text) {
+        int n = text.length();
+        if (n == 0) return;
+        ensureCapacity(length + n);
+        // only the char at offset can stop/start being a word start, everything after just shifts
+        int startsBefore = isWordStart(offset) ? 1 : 0;
+        if (offset < length) {
+            System.arraycopy(typed, offset, typed, offset + n, length - offset);
+        }
+        for (int i = 0; i < n; i++) {
+            typed[offset + i] = text.charAt(i);
+        }
+        int oldLength = length;
+        length += n;
+        words += countWordStarts(offset, offset + n) - startsBefore;
+        keystrokes += n;
+        recompute(offset, oldLength);
+        aligner.edited(offset);
+    }
+
+    void remove(int offset, int n) {
+        if (n <= 0) return;
+        int startsBefore = countWordStarts(offset, offset + n);
+        if (offset + n < length) {
+            System.arraycopy(typed, offset + n, typed, offset, length - offset - n);
+        }
+        int oldLength = length;
+        length -= n;
+        words += (isWordStart(offset) ? 1 : 0) - startsBefore;
+        keystrokes++;
+        recompute(offset, oldLength);
+        aligner.edited(offset);
+    }
+
+    // refresh mismatch bits from 'from' to the end, bits can only be set below oldLength
+    // typing at the end -> only the new chars, editing in the middle -> the tail shifts
+    private void recompute(int from, int oldLength) {
+        int oldLimit = Math.min(oldLength, target.length());
+        for (int i = from; i < oldLimit; i++) {
+            setBit(i, false);
+        }
+        int limit = Math.min(length, target.length());
+        for (int i = from; i < limit; i++) {
+            if (typed[i] != target.charAt(i)) {
+                setBit(i, true);
+            }
+        }
+    }
+
+    // inclusive range, the char after an edit can change too
+    private int countWordStarts(int from, int to) {
+        int count = 0;
+        for (int i = from; i <= to; i++) {
+            if (isWordStart(i)) count++;
+        }
+        return count;
+    }
+
+    private boolean isWordStart(int i) {
+        return i < length && !Character.isWhitespace(typed[i])
+            && (i == 0 || Character.isWhitespace(typed[i - 1]));
+    }
+
+    private void setBit(int i, boolean on) {
+        int word = i >> 6;
+        long mask = 1L << (i & 63);
+        boolean was = (mismatchBits[word] & mask) != 0;
+        if (was == on) return;
+        if (on) {
+            mismatchBits[word] |= mask;
+            mismatches++;
+        } else {
+            mismatchBits[word] &= ~mask;
+            mismatches--;
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > typed.length) {
+            typed = java.util.Arrays.copyOf(typed, Math.max(needed, typed.length * 2));
+        }
+        int words = (Math.max(needed, target.length()) >> 6) + 1;
+        if (words > mismatchBits.length) {
+            mismatchBits = java.util.Arrays.copyOf(mismatchBits, Math.max(words, mismatchBits.length * 2));
+        }
+    }
+
+    boolean isMismatch(int i) {
+        return i < length && (mismatchBits[i >> 6] & (1L << (i & 63))) != 0;
+    }
+
+    boolean isComplete() {
+        return length == target.length() && mismatches == 0;
+    }
+
+    // typed chars in the window
+    int length() {
+        return length;
+    }
+
+    // typed chars including the retired ones
+    int totalLength() {
+        return retiredLength + length;
+    }
+
+    int retiredLength() {
+        return retiredLength;
+    }
+
+    char charAt(int i) {
+        return typed[i];
+    }
+
+    int getWordCount() {
+        return retiredWords + words;
+    }
+
+    int getKeystrokes() {
+        return keystrokes;
+    }
+
+    String getTarget() {
+        return target;
+    }
+
+    // same as the old highlightMistakes count - wrong chars in the overlapping part
+    int getMistakes() {
+        return retiredMismatches + mismatches;
+    }
+
+    // correct / substituted / inserted / omitted from the banded alignment,
+    // returns correct chars as a share of all of them
+    int fillAlignment(SessionStats into) {
+        return aligner.fill(into);
+    }
+}
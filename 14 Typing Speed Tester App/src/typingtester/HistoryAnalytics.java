@@ -0,0 +1,225 @@
+package typingtester;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// the numbers behind the Stats tab and the report, kept up to date off the
+// EDT: per difficulty averages, moving averages, a least squares trend and
+// daily / weekly rollups
+//
+// one background thread owns the running totals. the EDT hands it a
+// HistoryStore.view() after adding rows and it folds in only the rows it
+// hasn't seen. after each batch it publishes an immutable Snapshot, so
+// readers never wait and never walk the history
+//
+// clear() bumps a generation. tasks queued before it skip their work or stop
+// between batches, their views may already see the rows written after the clear
+class HistoryAnalytics {
+    static final int CUSTOM = Passages.LEVELS.length; // custom passages
+    static final int ALL = CUSTOM + 1;                 // every test
+    private static final int GROUPS = ALL + 1;
+    static final double EMA_ALPHA = 0.1; // roughly the last 20 tests carry the average
+    static final int DAYS = 14, WEEKS = 8; // rollups in a snapshot, newest first
+    private static final int PUBLISH_EVERY = 1 << 18; // rows between snapshots while catching up
+
+    // tests, WPM, accuracy and time for one day or week
+    static final class Rollup {
+        final long firstDay; // epoch day, the Monday for weeks
+        final int tests;
+        final double averageWpm, averageAccuracy, minutes;
+
+        Rollup(long firstDay, Bucket bucket) {
+            this.firstDay = firstDay;
+            this.tests = bucket.tests;
+            this.averageWpm = bucket.wpm / bucket.tests;
+            this.averageAccuracy = bucket.accuracy / bucket.tests;
+            this.minutes = bucket.seconds / 60;
+        }
+    }
+
+    // what readers get, never changes once published. arrays are indexed by
+    // difficulty ordinal, CUSTOM and ALL
+    static final class Snapshot {
+        final int rows; // history rows folded in
+        final int[] tests = new int[GROUPS];
+        final double[] averageWpm = new double[GROUPS], averageAccuracy = new double[GROUPS];
+        final double[] bestWpm = new double[GROUPS], lowestWpm = new double[GROUPS];
+        final double totalSeconds;
+        final double emaWpm, emaAccuracy;
+        final double trendWpmPerTest;    // least squares slope of WPM over the tests
+        final double improvementPercent; // the trend line's last test against its first
+        final Rollup[] days, weeks;
+
+        private Snapshot(HistoryAnalytics a) {
+            rows = a.rows;
+            for (int g = 0; g < GROUPS; g++) {
+                tests[g] = a.tests[g];
+                averageWpm[g] = a.tests[g] == 0 ? 0 : a.sumWpm[g] / a.tests[g];
+                averageAccuracy[g] = a.tests[g] == 0 ? 0 : a.sumAccuracy[g] / a.tests[g];
+                bestWpm[g] = a.bestWpm[g];
+                lowestWpm[g] = a.lowestWpm[g];
+            }
+            totalSeconds = a.totalSeconds;
+            emaWpm = a.emaWpm;
+            emaAccuracy = a.emaAccuracy;
+            trendWpmPerTest = a.rows < 2 || a.spreadX == 0 ? 0 : a.coMoment / a.spreadX;
+            double first = a.meanY - trendWpmPerTest * a.meanX;
+            double last = first + trendWpmPerTest * (a.rows - 1);
+            improvementPercent = first > 0 ? (last - first) / first * 100 : 0;
+            days = newest(a.days, DAYS);
+            weeks = newest(a.weeks, WEEKS);
+        }
+
+        private static Rollup[] newest(TreeMap<Long, Bucket> buckets, int n) {
+            Rollup[] rollups = new Rollup[Math.min(n, buckets.size())];
+            int i = 0;
+            for (Map.Entry<Long, Bucket> entry : buckets.descendingMap().entrySet()) {
+                if (i == rollups.length) break;
+                rollups[i++] = new Rollup(entry.getKey(), entry.getValue());
+            }
+            return rollups;
+        }
+    }
+
+    private static final class Bucket {
+        int tests;
+        double wpm, accuracy, seconds;
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "history-analytics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger generation = new AtomicInteger();
+    private final Consumer<Snapshot> listener;
+    private final ZoneRules zone = ZoneId.systemDefault().getRules();
+    private volatile Snapshot latest;
+
+    // everything below belongs to the executor thread
+    private int rows = 0;
+    private final int[] tests = new int[GROUPS];
+    private final double[] sumWpm = new double[GROUPS], sumAccuracy = new double[GROUPS];
+    private final double[] bestWpm = new double[GROUPS], lowestWpm = new double[GROUPS];
+    private double totalSeconds = 0;
+    private double emaWpm = 0, emaAccuracy = 0;
+    // x = test number, y = WPM, updated Welford style so a million rows don't lose precision
+    private double meanX = 0, meanY = 0, coMoment = 0, spreadX = 0;
+    private final TreeMap<Long, Bucket> days = new TreeMap<>(), weeks = new TreeMap<>();
+
+    // the listener runs on the analytics thread, hop to the EDT from there
+    HistoryAnalytics(Consumer<Snapshot> listener) {
+        this.listener = listener;
+        latest = new Snapshot(this);
+    }
+
+    Snapshot snapshot() {
+        return latest;
+    }
+
+    // the whole history in one go on the calling thread, for tools and benchmarks
+    static Snapshot analyse(HistoryStore history) {
+        HistoryAnalytics analytics = new HistoryAnalytics(snapshot -> { });
+        analytics.foldIn(history, history.size());
+        return new Snapshot(analytics);
+    }
+
+    // after rows went into the history: a view taken right then, on the EDT
+    void catchUp(HistoryStore view) {
+        int queuedAt = generation.get();
+        executor.execute(() -> {
+            if (queuedAt != generation.get()) return;
+            int size = view.size();
+            while (rows < size) {
+                foldIn(view, Math.min(size, rows + PUBLISH_EVERY));
+                // cleared meanwhile, the view's arrays may have handed this batch newer rows.
+                // nothing gets published, the queued clear resets the totals
+                if (queuedAt != generation.get()) return;
+                publish();
+            }
+        });
+    }
+
+    // rows [rows, until) of the history
+    private void foldIn(HistoryStore history, int until) {
+        for (int i = rows; i < until; i++) {
+            add(history.difficultyOrdinal(i), history.wpm(i), history.accuracy(i), history.timeSeconds(i), history.epochMillis(i));
+        }
+    }
+
+    // after the history was cleared
+    void clear() {
+        int cleared = generation.incrementAndGet();
+        executor.execute(() -> {
+            if (cleared != generation.get()) return;
+            rows = 0;
+            Arrays.fill(tests, 0);
+            Arrays.fill(sumWpm, 0);
+            Arrays.fill(sumAccuracy, 0);
+            Arrays.fill(bestWpm, 0);
+            Arrays.fill(lowestWpm, 0);
+            totalSeconds = emaWpm = emaAccuracy = 0;
+            meanX = meanY = coMoment = spreadX = 0;
+            days.clear();
+            weeks.clear();
+            publish();
+        });
+    }
+
+    private void add(int ordinal, double wpm, int accuracy, double seconds, long epochMillis) {
+        int group = ordinal >= 0 && ordinal < CUSTOM ? ordinal : CUSTOM;
+        addTo(group, wpm, accuracy);
+        addTo(ALL, wpm, accuracy);
+        totalSeconds += seconds;
+
+        if (rows == 0) {
+            emaWpm = wpm;
+            emaAccuracy = accuracy;
+        } else {
+            emaWpm += EMA_ALPHA * (wpm - emaWpm);
+            emaAccuracy += EMA_ALPHA * (accuracy - emaAccuracy);
+        }
+
+        double x = rows, n = rows + 1;
+        double dx = x - meanX;
+        meanX += dx / n;
+        meanY += (wpm - meanY) / n;
+        coMoment += dx * (wpm - meanY);
+        spreadX += dx * (x - meanX);
+
+        long day = Math.floorDiv(epochMillis + zone.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L,
+            86_400_000L);
+        long monday = day - Math.floorMod(day + 3, 7); // epoch day 0 was a Thursday
+        addTo(days.computeIfAbsent(day, d -> new Bucket()), wpm, accuracy, seconds);
+        addTo(weeks.computeIfAbsent(monday, d -> new Bucket()), wpm, accuracy, seconds);
+        rows++;
+    }
+
+    private void addTo(int group, double wpm, int accuracy) {
+        bestWpm[group] = tests[group] == 0 ? wpm : Math.max(bestWpm[group], wpm);
+        lowestWpm[group] = tests[group] == 0 ? wpm : Math.min(lowestWpm[group], wpm);
+        tests[group]++;
+        sumWpm[group] += wpm;
+        sumAccuracy[group] += accuracy;
+    }
+
+    private static void addTo(Bucket bucket, double wpm, int accuracy, double seconds) {
+        bucket.tests++;
+        bucket.wpm += wpm;
+        bucket.accuracy += accuracy;
+        bucket.seconds += seconds;
+    }
+
+    private void publish() {
+        latest = new Snapshot(this);
+        listener.accept(latest);
+    }
+}
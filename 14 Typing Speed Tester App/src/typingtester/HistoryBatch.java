@@ -0,0 +1,43 @@
+package typingtester;
+
+// a chunk of parsed rows on their way from a background reader into the store
+class HistoryBatch {
+    final double[] wpm;
+    final int[] accuracy;
+    final double[] timeSeconds;
+    final long[] epochMillis;
+    final byte[] difficultyOrdinal;
+    final int[] level;
+    final char[] keyP50, keyP90, keyP99; // whole ms, 0 = not in the file
+    int size = 0;
+
+    HistoryBatch(int capacity) {
+        wpm = new double[capacity];
+        accuracy = new int[capacity];
+        timeSeconds = new double[capacity];
+        epochMillis = new long[capacity];
+        difficultyOrdinal = new byte[capacity];
+        level = new int[capacity];
+        keyP50 = new char[capacity];
+        keyP90 = new char[capacity];
+        keyP99 = new char[capacity];
+    }
+
+    boolean isFull() {
+        return size == wpm.length;
+    }
+
+    void add(double wpm, int accuracy, double timeSeconds, byte difficultyOrdinal, int level, long epochMillis,
+             char keyP50, char keyP90, char keyP99) {
+        int i = size++;
+        this.wpm[i] = wpm;
+        this.accuracy[i] = accuracy;
+        this.timeSeconds[i] = timeSeconds;
+        this.difficultyOrdinal[i] = difficultyOrdinal;
+        this.level[i] = level;
+        this.epochMillis[i] = epochMillis;
+        this.keyP50[i] = keyP50;
+        this.keyP90[i] = keyP90;
+        this.keyP99[i] = keyP99;
+    }
+}
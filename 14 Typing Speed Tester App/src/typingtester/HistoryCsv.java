@@ -0,0 +1,277 @@
+package typingtester;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+// csv layout used by "Export Data" / "Import Data"
+// both directions stream through a 1 MB byte buffer and format/parse the
+// numbers by hand, so neither side builds a String per row
+final class HistoryCsv {
+    // key intervals in whole ms, 0 = not recorded. files from before they were
+    // exported stop at Level and still import
+    static final String HEADER = "Test,Date,WPM,Accuracy,Time,Difficulty,Level,Key p50,Key p90,Key p99";
+
+    static final int BUFFER_SIZE = 1 << 20;
+    static final int BATCH_SIZE = 16_384; // rows per HistoryBatch on import
+    private static final int MAX_ROW = 128;
+    private static final byte[] LINE_END = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] DIFFICULTY_BYTES = new byte[Passages.LEVELS.length + 1][];
+
+    static {
+        for (int i = 0; i < Passages.LEVELS.length; i++) {
+            DIFFICULTY_BYTES[i] = Passages.LEVELS[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        DIFFICULTY_BYTES[Passages.LEVELS.length] = "Custom".getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // lets a background worker report back and stop early
+    interface Progress {
+        boolean isCancelled();
+        void update(long done, long total);
+    }
+
+    private HistoryCsv() { }
+
+    // returns the rows written, stops early (and returns what it got to) when cancelled
+    static int write(WritableByteChannel out, HistoryStore history, Progress progress) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        ByteBuffer wrapped = ByteBuffer.wrap(buf);
+        DateCodec dates = new DateCodec();
+        int rows = history.size();
+
+        int pos = putAscii(HEADER, buf, 0);
+        pos = put(LINE_END, buf, pos);
+        for (int i = 0; i < rows; i++) {
+            if (pos > buf.length - MAX_ROW) {
+                drain(out, wrapped, pos);
+                pos = 0;
+                if (progress.isCancelled()) return i;
+                progress.update(i, rows);
+            }
+            pos = putLong(i + 1, buf, pos);
+            buf[pos++] = ',';
+            pos = dates.format(history.epochMillis(i), buf, pos);
+            buf[pos++] = ',';
+            pos = putTenths(history.wpm(i), buf, pos);
+            buf[pos++] = ',';
+            pos = putLong(history.accuracy(i), buf, pos);
+            buf[pos++] = ',';
+            pos = putTenths(history.timeSeconds(i), buf, pos);
+            buf[pos++] = ',';
+            int ordinal = history.difficultyOrdinal(i);
+            pos = put(DIFFICULTY_BYTES[ordinal >= 0 && ordinal < Passages.LEVELS.length ? ordinal : Passages.LEVELS.length], buf, pos);
+            buf[pos++] = ',';
+            pos = putLong(history.level(i), buf, pos);
+            buf[pos++] = ',';
+            pos = putLong(history.keyP50Ms(i), buf, pos);
+            buf[pos++] = ',';
+            pos = putLong(history.keyP90Ms(i), buf, pos);
+            buf[pos++] = ',';
+            pos = putLong(history.keyP99Ms(i), buf, pos);
+            pos = put(LINE_END, buf, pos);
+        }
+        drain(out, wrapped, pos);
+        progress.update(rows, rows);
+        return rows;
+    }
+
+    // parses rows into batches and hands each full batch to the sink
+    // bad lines are skipped, returns how many were skipped
+    static int read(ReadableByteChannel in, long totalBytes, Consumer<HistoryBatch> sink, Progress progress) throws IOException {
+        byte[] buf = new byte[BUFFER_SIZE];
+        ByteBuffer wrapped = ByteBuffer.wrap(buf);
+        DateCodec dates = new DateCodec();
+        long now = System.currentTimeMillis();
+        int year = dates.year(now);
+        HistoryBatch batch = new HistoryBatch(BATCH_SIZE);
+        double[] number = new double[1];
+        int[] commas = new int[9];
+        long bytesRead = 0;
+        int skipped = 0;
+        boolean header = true;
+        int carry = 0;
+
+        while (true) {
+            wrapped.limit(buf.length).position(carry);
+            int n = in.read(wrapped);
+            boolean eof = n < 0;
+            int end = carry + Math.max(n, 0);
+            bytesRead += Math.max(n, 0);
+
+            int lineStart = 0;
+            for (int i = 0; i < end; i++) {
+                if (buf[i] != '\n') continue;
+                int lineEnd = i > lineStart && buf[i - 1] == '\r' ? i - 1 : i;
+                boolean isHeader = header && startsWith(buf, lineStart, lineEnd, "Test,");
+                header = false;
+                if (!isHeader && lineEnd > lineStart && !parseRow(buf, lineStart, lineEnd, dates, year, now, commas, number, batch)) {
+                    skipped++;
+                }
+                lineStart = i + 1;
+                if (batch.isFull()) {
+                    sink.accept(batch);
+                    batch = new HistoryBatch(BATCH_SIZE);
+                }
+            }
+            if (eof) {
+                // last line without a newline
+                if (end > lineStart && !parseRow(buf, lineStart, end, dates, year, now, commas, number, batch)) {
+                    skipped++;
+                }
+                break;
+            }
+            carry = end - lineStart;
+            if (carry == buf.length) {
+                throw new IOException("Line too long at byte " + bytesRead);
+            }
+            System.arraycopy(buf, lineStart, buf, 0, carry);
+            if (progress.isCancelled()) return skipped;
+            progress.update(bytesRead, totalBytes);
+        }
+        if (batch.size > 0) {
+            sink.accept(batch);
+        }
+        progress.update(totalBytes, totalBytes);
+        return skipped;
+    }
+
+    // Test,Date,WPM,Accuracy,Time,Difficulty,Level[,Key p50,Key p90,Key p99]
+    private static boolean parseRow(byte[] buf, int start, int end, DateCodec dates, int year, long now,
+                                    int[] commas, double[] number, HistoryBatch batch) {
+        int found = 0;
+        for (int i = start; i < end && found < commas.length; i++) {
+            if (buf[i] == ',') commas[found++] = i;
+        }
+        if (found != 6 && found != 9) return false;
+        int c0 = commas[0], c1 = commas[1], c2 = commas[2], c3 = commas[3], c4 = commas[4], c5 = commas[5];
+        int levelEnd = found == 9 ? commas[6] : end;
+
+        long epoch = dates.parse(buf, c0 + 1, c1 - c0 - 1, year, now);
+        if (epoch < 0) return false;
+        if (!parseDecimal(buf, c1 + 1, c2, number)) return false;
+        double wpm = number[0];
+        long accuracy = parseLong(buf, c2 + 1, c3);
+        if (!parseDecimal(buf, c3 + 1, c4, number)) return false;
+        double time = number[0];
+        long level = parseLong(buf, c5 + 1, levelEnd);
+        if (accuracy < 0 || accuracy > 100 || level < 0 || level > Integer.MAX_VALUE) return false;
+        long p50 = 0, p90 = 0, p99 = 0;
+        if (found == 9) {
+            p50 = parseLong(buf, commas[6] + 1, commas[7]);
+            p90 = parseLong(buf, commas[7] + 1, commas[8]);
+            p99 = parseLong(buf, commas[8] + 1, end);
+            if (Math.min(p50, Math.min(p90, p99)) < 0 || Math.max(p50, Math.max(p90, p99)) > Character.MAX_VALUE) return false;
+        }
+
+        batch.add(wpm, (int) accuracy, time, difficultyOrdinal(buf, c4 + 1, c5), (int) level, epoch,
+            (char) p50, (char) p90, (char) p99);
+        return true;
+    }
+
+    private static byte difficultyOrdinal(byte[] buf, int start, int end) {
+        for (int i = 0; i < Passages.LEVELS.length; i++) {
+            byte[] name = DIFFICULTY_BYTES[i];
+            if (name.length == end - start && startsWith(buf, start, end, name)) return (byte) i;
+        }
+        return -1;
+    }
+
+    // non negative whole number, -1 if it isn't one
+    private static long parseLong(byte[] buf, int start, int end) {
+        if (start >= end || end - start > 18) return -1;
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // digits with an optional fraction, e.g. 72.5
+    private static boolean parseDecimal(byte[] buf, int start, int end, double[] out) {
+        if (start >= end || end - start > 18) return false;
+        long mantissa = 0;
+        long scale = 1;
+        boolean fraction = false;
+        for (int i = start; i < end; i++) {
+            byte b = buf[i];
+            if (b == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) return false;
+            mantissa = mantissa * 10 + digit;
+            if (fraction) scale *= 10;
+        }
+        out[0] = (double) mantissa / scale;
+        return true;
+    }
+
+    private static boolean startsWith(byte[] buf, int start, int end, String prefix) {
+        if (end - start < prefix.length()) return false;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buf[start + i] != prefix.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static boolean startsWith(byte[] buf, int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buf[start + i] != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    private static void drain(WritableByteChannel out, ByteBuffer wrapped, int length) throws IOException {
+        wrapped.limit(length).position(0);
+        while (wrapped.hasRemaining()) {
+            out.write(wrapped);
+        }
+    }
+
+    private static int put(byte[] bytes, byte[] buf, int pos) {
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        return pos + bytes.length;
+    }
+
+    private static int putAscii(String s, byte[] buf, int pos) {
+        for (int i = 0; i < s.length(); i++) {
+            buf[pos++] = (byte) s.charAt(i);
+        }
+        return pos;
+    }
+
+    private static int putLong(long value, byte[] buf, int pos) {
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value; v >= 10; v /= 10) digits++;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    // same output as %.1f for the values we store
+    private static int putTenths(double value, byte[] buf, int pos) {
+        long tenths = Math.round(value * 10);
+        if (tenths < 0) {
+            buf[pos++] = '-';
+            tenths = -tenths;
+        }
+        pos = putLong(tenths / 10, buf, pos);
+        buf[pos++] = '.';
+        buf[pos++] = (byte) ('0' + tenths % 10);
+        return pos;
+    }
+}
@@ -0,0 +1,57 @@
+package typingtester;
+
+import java.time.LocalDate;
+
+// text for the "Generate Report" dialog
+final class HistoryReport {
+    private HistoryReport() { }
+
+    // the history numbers come from the analytics snapshot, no pass over the
+    // rows; progress only adds level, xp and streak. historyRows says whether
+    // the snapshot is still catching up
+    static String build(HistoryAnalytics.Snapshot stats, PlayerProgress progress, int historyRows) {
+        StringBuilder report = new StringBuilder();
+        report.append("📊 TYPING PERFORMANCE REPORT\n");
+        report.append("================================\n\n");
+        if (stats.rows < historyRows) {
+            report.append(String.format("(still analysing: %d of %d tests so far)\n\n", stats.rows, historyRows));
+        }
+
+        int all = HistoryAnalytics.ALL;
+        report.append(String.format("Total Tests Completed: %d\n", stats.tests[all]));
+        report.append(String.format("Total Typing Time: %.1f minutes\n", stats.totalSeconds / 60.0));
+        report.append(String.format("Current Level: %d\n", progress.getCurrentLevel()));
+        report.append(String.format("Total XP: %.0f\n\n", progress.getTotalXP()));
+
+        report.append("PERFORMANCE METRICS:\n");
+        report.append(String.format("• Average WPM: %.1f\n", stats.averageWpm[all]));
+        report.append(String.format("• Best WPM: %.1f\n", stats.bestWpm[all]));
+        report.append(String.format("• Lowest WPM: %.1f\n", stats.lowestWpm[all]));
+        report.append(String.format("• Average Accuracy: %.1f%%\n", stats.averageAccuracy[all]));
+        report.append(String.format("• Best Streak: %d tests\n", progress.getBestStreak()));
+        report.append(String.format("• Recent Form: %.1f WPM, %.1f%% accuracy (moving average)\n", stats.emaWpm, stats.emaAccuracy));
+        report.append(String.format("• Trend: %+.3f WPM per test, %+.1f%% over your history\n\n",
+            stats.trendWpmPerTest, stats.improvementPercent));
+
+        report.append("BY DIFFICULTY:\n");
+        for (int g = 0; g < all; g++) {
+            if (stats.tests[g] == 0) continue;
+            String name = g < Passages.LEVELS.length ? Passages.LEVELS[g] : "Custom";
+            report.append(String.format("• %-12s %6d tests  %5.1f WPM  %5.1f%%  best %.1f\n",
+                name, stats.tests[g], stats.averageWpm[g], stats.averageAccuracy[g], stats.bestWpm[g]));
+        }
+
+        rollups(report, "\nLAST " + HistoryAnalytics.DAYS + " ACTIVE DAYS:\n", "", stats.days);
+        rollups(report, "\nLAST " + HistoryAnalytics.WEEKS + " ACTIVE WEEKS:\n", "week of ", stats.weeks);
+        return report.toString();
+    }
+
+    private static void rollups(StringBuilder report, String title, String prefix, HistoryAnalytics.Rollup[] rollups) {
+        if (rollups.length == 0) return;
+        report.append(title);
+        for (HistoryAnalytics.Rollup r : rollups) {
+            report.append(String.format("• %s%s  %5d tests  %5.1f WPM  %5.1f%%  %.0f min\n",
+                prefix, LocalDate.ofEpochDay(r.firstDay), r.tests, r.averageWpm, r.averageAccuracy, r.minutes));
+        }
+    }
+}
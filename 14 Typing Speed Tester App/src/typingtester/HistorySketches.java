@@ -0,0 +1,142 @@
+package typingtester;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// "this run beats 87% of your Advanced runs" without sorting the history:
+// a QuantileSketch per difficulty for WPM, accuracy and time, fed as results
+// come in, asked before the new result goes in
+//
+// saved next to results.log. the file remembers how many history rows it
+// covers, if that doesn't match the history on load (crash, file lost) the
+// sketches are rebuilt from the history in one pass
+//
+// file: magic "TSQS", version, rows covered, then the sketches difficulty by
+// difficulty, WPM / accuracy / time each
+class HistorySketches {
+    static final int WPM = 0, ACCURACY = 1, TIME = 2;
+    private static final int METRICS = 3;
+    private static final int MAGIC = 0x54535153; // "TSQS"
+    private static final int VERSION = 1;
+
+    private final QuantileSketch[][] sketches = new QuantileSketch[Passages.LEVELS.length][METRICS];
+    private int rows = 0; // history rows seen, custom passages included
+
+    HistorySketches() {
+        for (QuantileSketch[] level : sketches) {
+            for (int m = 0; m < METRICS; m++) {
+                level[m] = new QuantileSketch();
+            }
+        }
+    }
+
+    static Path defaultFile() {
+        return ResultLog.defaultFile().resolveSibling("history.sketches");
+    }
+
+    // results on a custom passage only count towards rows()
+    void add(int ordinal, double wpm, int accuracy, double seconds) {
+        rows++;
+        if (ordinal < 0 || ordinal >= sketches.length) return;
+        sketches[ordinal][WPM].add((float) wpm);
+        sketches[ordinal][ACCURACY].add(accuracy);
+        sketches[ordinal][TIME].add((float) seconds);
+    }
+
+    // history rows [from, history.size())
+    void addRows(HistoryStore history, int from) {
+        for (int i = from; i < history.size(); i++) {
+            add(history.difficultyOrdinal(i), history.wpm(i), history.accuracy(i), history.timeSeconds(i));
+        }
+    }
+
+    void clear() {
+        rows = 0;
+        for (QuantileSketch[] level : sketches) {
+            for (QuantileSketch sketch : level) {
+                sketch.clear();
+            }
+        }
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    long count(int ordinal) {
+        return ordinal < 0 || ordinal >= sketches.length ? 0 : sketches[ordinal][WPM].count();
+    }
+
+    // share of the earlier runs at this difficulty this value beats: slower
+    // WPM, lower accuracy, longer time. 0 with no earlier runs
+    double beats(int ordinal, int metric, double value) {
+        if (count(ordinal) == 0) return 0;
+        QuantileSketch sketch = sketches[ordinal][metric];
+        return metric == TIME ? 1 - sketch.rank((float) value, true) : sketch.rank((float) value, false);
+    }
+
+    QuantileSketch sketch(int ordinal, int metric) {
+        return sketches[ordinal][metric];
+    }
+
+    // loaded if the file matches the history, rebuilt from the history otherwise
+    static HistorySketches open(Path file, HistoryStore history) {
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                HistorySketches loaded = read(in);
+                if (loaded.rows == history.size()) return loaded;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        HistorySketches rebuilt = new HistorySketches();
+        rebuilt.addRows(history, 0);
+        return rebuilt;
+    }
+
+    // written to a temp file and moved over, a crash mid write leaves the old file
+    void save(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            write(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(rows);
+        out.writeByte(sketches.length);
+        for (QuantileSketch[] level : sketches) {
+            for (QuantileSketch sketch : level) {
+                sketch.write(out);
+            }
+        }
+        out.flush();
+    }
+
+    static HistorySketches read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) throw new IOException("Not a sketch file");
+        HistorySketches loaded = new HistorySketches();
+        loaded.rows = in.readInt();
+        if (in.readUnsignedByte() != loaded.sketches.length) throw new IOException("Difficulty count changed");
+        for (QuantileSketch[] level : loaded.sketches) {
+            for (int m = 0; m < METRICS; m++) {
+                level[m] = QuantileSketch.read(in);
+            }
+        }
+        return loaded;
+    }
+}
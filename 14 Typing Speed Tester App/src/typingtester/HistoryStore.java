@@ -0,0 +1,188 @@
+package typingtester;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+// test history kept column by column, one primitive array per field
+// dates are only formatted when a row is shown. the summary numbers live
+// in HistoryAnalytics, which folds in new rows from a view()
+class HistoryStore {
+    static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd HH:mm");
+    private static final int INITIAL_CAPACITY = 64;
+
+    private double[] wpm = new double[INITIAL_CAPACITY];
+    private int[] accuracy = new int[INITIAL_CAPACITY];
+    private double[] timeSeconds = new double[INITIAL_CAPACITY];
+    private long[] epochMillis = new long[INITIAL_CAPACITY];
+    private byte[] difficultyOrdinal = new byte[INITIAL_CAPACITY];
+    private int[] level = new int[INITIAL_CAPACITY];
+    // inter-key interval percentiles in whole ms, 0 = not recorded (imports, older logs)
+    private char[] keyP50 = new char[INITIAL_CAPACITY];
+    private char[] keyP90 = new char[INITIAL_CAPACITY];
+    private char[] keyP99 = new char[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private final ResultLog log; // null = memory only
+    private final boolean readOnly;
+
+    HistoryStore() {
+        this((ResultLog) null);
+    }
+
+    // columns get filled from the log in one go, nothing is decoded per object
+    HistoryStore(ResultLog log) {
+        this.log = log;
+        this.readOnly = false;
+        if (log != null) {
+            int stored = log.size();
+            ensureCapacity(stored);
+            for (int i = 0; i < stored; i++) {
+                put(log.wpm(i), log.accuracy(i), log.timeSeconds(i), log.difficulty(i), log.level(i), log.epochMillis(i),
+                    log.keyP50(i), log.keyP90(i), log.keyP99(i));
+            }
+        }
+    }
+
+    // frozen view for a background reader (export): shares the arrays, rows added
+    // later land past its size or in new arrays, so only clear() can disturb it
+    private HistoryStore(HistoryStore source) {
+        log = null;
+        readOnly = true;
+        wpm = source.wpm;
+        accuracy = source.accuracy;
+        timeSeconds = source.timeSeconds;
+        epochMillis = source.epochMillis;
+        difficultyOrdinal = source.difficultyOrdinal;
+        level = source.level;
+        keyP50 = source.keyP50;
+        keyP90 = source.keyP90;
+        keyP99 = source.keyP99;
+        size = source.size;
+    }
+
+    // take it on the EDT before handing it to the worker
+    HistoryStore view() {
+        return new HistoryStore(this);
+    }
+
+    int add(double wpm, int accuracy, double timeSeconds, String difficulty, int level, long epochMillis) {
+        return add(wpm, accuracy, timeSeconds, difficulty, level, epochMillis, 0, 0, 0);
+    }
+
+    // with the key interval percentiles from the session's timeline
+    int add(double wpm, int accuracy, double timeSeconds, String difficulty, int level, long epochMillis,
+            double keyP50Ms, double keyP90Ms, double keyP99Ms) {
+        checkWritable();
+        byte ordinal = (byte) Passages.levelOrdinal(difficulty);
+        char p50 = millis(keyP50Ms), p90 = millis(keyP90Ms), p99 = millis(keyP99Ms);
+        if (log != null) {
+            log.append(epochMillis, wpm, timeSeconds, accuracy, level, ordinal, p50, p90, p99);
+        }
+        ensureCapacity(size + 1);
+        return put(wpm, accuracy, timeSeconds, ordinal, level, epochMillis, p50, p90, p99);
+    }
+
+    // rounded and capped to what an unsigned short holds
+    private static char millis(double ms) {
+        return (char) Math.max(0, Math.min(Character.MAX_VALUE, Math.round(ms)));
+    }
+
+    // bulk import, nothing forced to disk until flush(), returns the first new row
+    int addAll(HistoryBatch batch) {
+        checkWritable();
+        int first = size;
+        ensureCapacity(size + batch.size);
+        for (int i = 0; i < batch.size; i++) {
+            if (log != null) {
+                log.appendBulk(batch.epochMillis[i], batch.wpm[i], batch.timeSeconds[i],
+                    batch.accuracy[i], batch.level[i], batch.difficultyOrdinal[i],
+                    batch.keyP50[i], batch.keyP90[i], batch.keyP99[i]);
+            }
+            put(batch.wpm[i], batch.accuracy[i], batch.timeSeconds[i], batch.difficultyOrdinal[i],
+                batch.level[i], batch.epochMillis[i], batch.keyP50[i], batch.keyP90[i], batch.keyP99[i]);
+        }
+        return first;
+    }
+
+    // one force() once an import is done, not one per batch
+    void flush() {
+        if (log != null) {
+            log.flush();
+        }
+    }
+
+    private void checkWritable() {
+        if (readOnly) throw new UnsupportedOperationException("History view is read only");
+    }
+
+    private int put(double wpm, int accuracy, double timeSeconds, byte ordinal, int level, long epochMillis,
+                    char keyP50, char keyP90, char keyP99) {
+        int i = size++;
+        this.wpm[i] = wpm;
+        this.accuracy[i] = accuracy;
+        this.timeSeconds[i] = timeSeconds;
+        this.difficultyOrdinal[i] = ordinal;
+        this.level[i] = level;
+        this.epochMillis[i] = epochMillis;
+        this.keyP50[i] = keyP50;
+        this.keyP90[i] = keyP90;
+        this.keyP99[i] = keyP99;
+        return i;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= wpm.length) return;
+        int capacity = Math.max(needed, wpm.length + (wpm.length >> 1));
+        wpm = Arrays.copyOf(wpm, capacity);
+        accuracy = Arrays.copyOf(accuracy, capacity);
+        timeSeconds = Arrays.copyOf(timeSeconds, capacity);
+        epochMillis = Arrays.copyOf(epochMillis, capacity);
+        difficultyOrdinal = Arrays.copyOf(difficultyOrdinal, capacity);
+        level = Arrays.copyOf(level, capacity);
+        keyP50 = Arrays.copyOf(keyP50, capacity);
+        keyP90 = Arrays.copyOf(keyP90, capacity);
+        keyP99 = Arrays.copyOf(keyP99, capacity);
+    }
+
+    void clear() {
+        checkWritable();
+        if (log != null) {
+            log.clear();
+        }
+        size = 0;
+    }
+
+    void close() throws IOException {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    int size() { return size; }
+    boolean isEmpty() { return size == 0; }
+
+    double wpm(int i) { return wpm[i]; }
+    int accuracy(int i) { return accuracy[i]; }
+    double timeSeconds(int i) { return timeSeconds[i]; }
+    long epochMillis(int i) { return epochMillis[i]; }
+    int level(int i) { return level[i]; }
+    int keyP50Ms(int i) { return keyP50[i]; }
+    int keyP90Ms(int i) { return keyP90[i]; }
+    int keyP99Ms(int i) { return keyP99[i]; }
+    boolean hasKeyTimings(int i) { return keyP50[i] != 0 || keyP99[i] != 0; }
+
+    byte difficultyOrdinal(int i) { return difficultyOrdinal[i]; }
+
+    String difficulty(int i) {
+        int ordinal = difficultyOrdinal[i];
+        return ordinal >= 0 && ordinal < Passages.LEVELS.length ? Passages.LEVELS[ordinal] : "Custom";
+    }
+
+    String date(int i) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis[i]), ZoneId.systemDefault()).format(DATE_FORMAT);
+    }
+}
@@ -0,0 +1,69 @@
+package typingtester;
+
+import javax.swing.table.AbstractTableModel;
+
+// history table straight on top of the store
+// JTable only asks for the rows it paints so only those get formatted
+class HistoryTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = {"Test #", "Date", "WPM", "Accuracy", "Time", "Difficulty", "Level", "Key ms p50/p90/p99"};
+
+    private final HistoryStore history;
+
+    HistoryTableModel(HistoryStore history) {
+        this.history = history;
+    }
+
+    // call after history.add(), only the new row gets laid out
+    void rowAdded(int index) {
+        fireTableRowsInserted(index, index);
+    }
+
+    // after history.addAll()
+    void rowsAdded(int first, int count) {
+        if (count > 0) {
+            fireTableRowsInserted(first, first + count - 1);
+        }
+    }
+
+    void cleared() {
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return history.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0: return row + 1;
+            case 1: return history.date(row);
+            case 2: return String.format("%.1f", history.wpm(row));
+            case 3: return history.accuracy(row) + "%";
+            case 4: return String.format("%.1fs", history.timeSeconds(row));
+            case 5: return history.difficulty(row);
+            case 6: return "Level " + history.level(row);
+            case 7: return history.hasKeyTimings(row)
+                ? history.keyP50Ms(row) + " / " + history.keyP90Ms(row) + " / " + history.keyP99Ms(row)
+                : "-";
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package typingtester;
+
+import java.util.Arrays;
+
+// every edit the session sees, kept in preallocated primitive arrays
+// (nanoTime, offset, char + flags) - once it's full the oldest events get overwritten
+// nothing is allocated per keystroke
+class KeystrokeTimeline {
+    static final int CORRECT = 1 << 16;
+    static final int DELETE = 1 << 17;
+    static final int GAP = 1 << 18; // pause before this event, interval doesn't count
+
+    private final long[] times;
+    private final int[] offsets;
+    private final int[] info; // low 16 bits = char, high bits = flags
+    private final long[] intervals; // scratch for percentiles
+    private final int mask;
+    private long count = 0;
+    private boolean gapPending = false;
+
+    // capacity gets rounded up to a power of 2
+    KeystrokeTimeline(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        times = new long[size];
+        offsets = new int[size];
+        info = new int[size];
+        intervals = new long[size];
+        mask = size - 1;
+    }
+
+    void clear() {
+        count = 0;
+        gapPending = false;
+    }
+
+    void recordInsert(long nanos, int offset, char c, boolean correct) {
+        record(nanos, offset, c | (correct ? CORRECT : 0));
+    }
+
+    void recordDelete(long nanos, int offset) {
+        record(nanos, offset, DELETE);
+    }
+
+    // the next interval spans a pause
+    void markGap() {
+        gapPending = true;
+    }
+
+    private void record(long nanos, int offset, int flags) {
+        int slot = (int) (count++ & mask);
+        times[slot] = nanos;
+        offsets[slot] = offset;
+        info[slot] = gapPending ? flags | GAP : flags;
+        gapPending = false;
+    }
+
+    // events still in the buffer
+    int size() {
+        return (int) Math.min(count, times.length);
+    }
+
+    // 0 = oldest event still held
+    long timeAt(int index) { return times[slot(index)]; }
+    int offsetAt(int index) { return offsets[slot(index)]; }
+    char charAt(int index) { return (char) info[slot(index)]; }
+    boolean isCorrect(int index) { return (info[slot(index)] & CORRECT) != 0; }
+    boolean isDelete(int index) { return (info[slot(index)] & DELETE) != 0; }
+
+    private int slot(int index) {
+        return (int) ((count - size() + index) & mask);
+    }
+
+    // inter-key interval percentiles in ms, intervals across a pause are left out
+    // fills p50/p90/p99/max of 'into'
+    void summarize(SessionStats into) {
+        int n = 0;
+        for (int i = 1; i < size(); i++) {
+            if ((info[slot(i)] & GAP) != 0) continue;
+            intervals[n++] = timeAt(i) - timeAt(i - 1);
+        }
+        if (n == 0) {
+            into.keyP50Ms = into.keyP90Ms = into.keyP99Ms = into.keyMaxMs = 0;
+            return;
+        }
+        Arrays.sort(intervals, 0, n);
+        into.keyP50Ms = percentile(n, 0.50);
+        into.keyP90Ms = percentile(n, 0.90);
+        into.keyP99Ms = percentile(n, 0.99);
+        into.keyMaxMs = intervals[n - 1] / 1e6;
+    }
+
+    // nearest rank
+    private double percentile(int n, double p) {
+        int rank = (int) Math.ceil(p * n) - 1;
+        return intervals[Math.max(0, Math.min(n - 1, rank))] / 1e6;
+    }
+}
@@ -0,0 +1,73 @@
+package typingtester;
+
+// the last N latency samples bucketed log-linear: 8 buckets per power of two
+// of microseconds, so any bucket is within 12.5% of the real value
+// when the window is full the oldest sample drops back out of its bucket
+class LatencyHistogram {
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final long[] window; // micros, oldest gets overwritten
+    private final int[] counts = new int[BUCKETS];
+    private int next = 0;
+    private int size = 0;
+
+    LatencyHistogram(int windowSize) {
+        window = new long[windowSize];
+    }
+
+    void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        if (size == window.length) {
+            counts[bucket(window[next])]--;
+        } else {
+            size++;
+        }
+        window[next] = micros;
+        counts[bucket(micros)]++;
+        next = next + 1 == window.length ? 0 : next + 1;
+    }
+
+    void clear() {
+        java.util.Arrays.fill(counts, 0);
+        next = 0;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // upper edge of the bucket holding the p-th sample (never above the max), 0 when empty
+    double percentileMs(double p) {
+        if (size == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * size));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(lowerBound(i + 1) / 1000.0, maxMs());
+        }
+        return maxMs();
+    }
+
+    // exact, from the raw samples
+    double maxMs() {
+        long max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, window[i]);
+        }
+        return max / 1000.0;
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) return (int) micros;
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        return (exponent - 2) * SUB_BUCKETS + (int) ((micros >>> (exponent - 3)) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + 2;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 3);
+    }
+}
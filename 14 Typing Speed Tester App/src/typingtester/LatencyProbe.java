@@ -0,0 +1,126 @@
+package typingtester;
+
+import java.awt.KeyEventDispatcher;
+import java.awt.KeyboardFocusManager;
+import java.awt.event.KeyEvent;
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+
+// how long a key takes to reach the screen, split in three so a slow machine
+// shows where the time goes:
+//   handler - key dispatched until the document listener (diff + onTextChange) is done
+//   echo    - key dispatched until the input area has been repainted
+//   stats   - key dispatched until the live stats labels next repaint (uiTimer tick + paint)
+// the oldest unanswered key is what gets timed, so bursts count their slowest key
+//
+// while it's off nothing is hooked in - the only cost left is the isEnabled()
+// check in the document listener. turning it on installs a key dispatcher and
+// a RepaintManager that notes which of the watched components it painted.
+// everything here runs on the EDT
+class LatencyProbe {
+    private static final int WINDOW = 1024; // samples kept per histogram
+
+    final LatencyHistogram handler = new LatencyHistogram(WINDOW);
+    final LatencyHistogram echo = new LatencyHistogram(WINDOW);
+    final LatencyHistogram stats = new LatencyHistogram(WINDOW);
+
+    private final JComponent input;
+    private final JComponent[] statsLabels;
+
+    // nanoTime of the oldest key not yet answered, 0 = none waiting
+    private long handlerPending, echoPending, statsPending;
+    private boolean inputDirty, statsDirty;
+    private boolean enabled = false;
+    private RepaintManager previousManager;
+
+    private final KeyEventDispatcher dispatcher = new KeyEventDispatcher() {
+        @Override
+        public boolean dispatchKeyEvent(KeyEvent e) {
+            if (e.getID() == KeyEvent.KEY_TYPED && e.getComponent() == input) {
+                keyDispatched(System.nanoTime());
+            }
+            return false;
+        }
+    };
+
+    private final RepaintManager manager = new RepaintManager() {
+        @Override
+        public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+            super.addDirtyRegion(c, x, y, w, h);
+            noteDirty(c);
+        }
+
+        @Override
+        public void paintDirtyRegions() {
+            boolean inputPainted = inputDirty, statsPainted = statsDirty;
+            inputDirty = statsDirty = false;
+            super.paintDirtyRegions();
+            painted(inputPainted, statsPainted, System.nanoTime());
+        }
+    };
+
+    LatencyProbe(JComponent input, JComponent... statsLabels) {
+        this.input = input;
+        this.statsLabels = statsLabels;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    void setEnabled(boolean on) {
+        if (on == enabled) return;
+        enabled = on;
+        handlerPending = echoPending = statsPending = 0;
+        if (on) {
+            handler.clear();
+            echo.clear();
+            stats.clear();
+            previousManager = RepaintManager.currentManager(input);
+            RepaintManager.setCurrentManager(manager);
+            KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(dispatcher);
+        } else {
+            KeyboardFocusManager.getCurrentKeyboardFocusManager().removeKeyEventDispatcher(dispatcher);
+            RepaintManager.setCurrentManager(previousManager);
+            previousManager = null;
+        }
+    }
+
+    private void keyDispatched(long now) {
+        if (handlerPending == 0) handlerPending = now;
+        if (echoPending == 0) echoPending = now;
+        if (statsPending == 0) statsPending = now;
+    }
+
+    // end of the document listener
+    void handled() {
+        if (handlerPending != 0) {
+            handler.record(System.nanoTime() - handlerPending);
+            handlerPending = 0;
+        }
+    }
+
+    private void noteDirty(JComponent c) {
+        if (c == input) {
+            inputDirty = true;
+            return;
+        }
+        for (JComponent label : statsLabels) {
+            if (c == label) {
+                statsDirty = true;
+                return;
+            }
+        }
+    }
+
+    private void painted(boolean inputPainted, boolean statsPainted, long now) {
+        if (inputPainted && echoPending != 0) {
+            echo.record(now - echoPending);
+            echoPending = 0;
+        }
+        if (statsPainted && statsPending != 0) {
+            stats.record(now - statsPending);
+            statsPending = 0;
+        }
+    }
+}
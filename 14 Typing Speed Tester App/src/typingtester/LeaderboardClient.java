@@ -0,0 +1,83 @@
+package typingtester;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// talks to a LeaderboardServer, everything async so the EDT never waits on
+// the network - callers get a future and hop back with invokeLater
+class LeaderboardClient {
+    private static final Duration TIMEOUT = Duration.ofSeconds(3);
+
+    private final HttpClient http;
+    private final String base;
+
+    LeaderboardClient(String url) {
+        base = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+        http = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    // -Dtypingtester.leaderboard=http://host:port, null = no leaderboard
+    static String defaultUrl() {
+        return System.getProperty("typingtester.leaderboard");
+    }
+
+    // completes with {rank, total}
+    CompletableFuture<int[]> submit(String player, String difficulty, double wpm, int accuracy) {
+        String form = "player=" + encode(player) + "&difficulty=" + encode(difficulty)
+            + "&wpm=" + wpm + "&accuracy=" + accuracy;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/submit"))
+            .timeout(TIMEOUT)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .build();
+        return send(request).thenApply(LeaderboardClient::rankAndTotal);
+    }
+
+    // {rank, player, wpm, accuracy, epochMillis} per row, fastest first
+    CompletableFuture<List<String[]>> top(String difficulty, int n) {
+        return send(get("/top?difficulty=" + encode(difficulty) + "&n=" + n)).thenApply(body -> {
+            List<String[]> rows = new ArrayList<>();
+            for (String line : body.split("\n")) {
+                String[] fields = line.split(",", -1);
+                if (fields.length == 5) rows.add(fields);
+            }
+            return rows;
+        });
+    }
+
+    CompletableFuture<int[]> rank(String difficulty, double wpm) {
+        return send(get("/rank?difficulty=" + encode(difficulty) + "&wpm=" + wpm))
+            .thenApply(LeaderboardClient::rankAndTotal);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(base + path)).timeout(TIMEOUT).GET().build();
+    }
+
+    // non 200 answers fail the future with the server's message
+    private CompletableFuture<String> send(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Leaderboard: " + response.statusCode() + " " + response.body().strip());
+            }
+            return response.body();
+        });
+    }
+
+    private static int[] rankAndTotal(String body) {
+        String[] fields = body.strip().split(",");
+        return new int[] {Integer.parseInt(fields[0]), Integer.parseInt(fields[1])};
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package typingtester;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+// the shared leaderboard, one board per difficulty, safe to hit from any number
+// of threads without locks
+//
+// ranks come from a Fenwick tree of result counts over WPM in tenths (fastest
+// first), so a submit and a rank lookup are O(log MAX_TENTHS) atomic ops no
+// matter how many results there are. the names behind the top KEEP results sit
+// in a skip list for the top N lists
+// a rank read while other submits are landing can be off by those submits
+class LeaderboardIndex {
+    static final int MAX_TENTHS = 3000; // 300 WPM, anything faster is counted as that
+    static final int KEEP = 1000;       // results with names kept per difficulty
+
+    static final class Entry {
+        final String player;
+        final int wpmTenths;
+        final int accuracy;
+        final long epochMillis;
+        private final long seq; // first come ranks first among equal results
+
+        Entry(String player, int wpmTenths, int accuracy, long epochMillis, long seq) {
+            this.player = player;
+            this.wpmTenths = wpmTenths;
+            this.accuracy = accuracy;
+            this.epochMillis = epochMillis;
+            this.seq = seq;
+        }
+    }
+
+    private static final Comparator<Entry> FASTEST_FIRST = (a, b) -> {
+        if (a.wpmTenths != b.wpmTenths) return Integer.compare(b.wpmTenths, a.wpmTenths);
+        if (a.accuracy != b.accuracy) return Integer.compare(b.accuracy, a.accuracy);
+        return Long.compare(a.seq, b.seq);
+    };
+
+    private static final class Board {
+        // 1 based, slot MAX_TENTHS - wpmTenths + 1, so a prefix sum counts everyone at least that fast
+        final AtomicIntegerArray tree = new AtomicIntegerArray(MAX_TENTHS + 2);
+        final AtomicInteger total = new AtomicInteger();
+        final ConcurrentSkipListSet<Entry> top = new ConcurrentSkipListSet<>(FASTEST_FIRST);
+        final AtomicInteger topSize = new AtomicInteger();
+    }
+
+    private final Board[] boards = new Board[Passages.LEVELS.length];
+    private final AtomicLong seq = new AtomicLong();
+
+    LeaderboardIndex() {
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = new Board();
+        }
+    }
+
+    static int tenths(double wpm) {
+        return (int) Math.max(0, Math.min(MAX_TENTHS, Math.round(wpm * 10)));
+    }
+
+    // returns the rank the result got
+    int submit(int ordinal, String player, double wpm, int accuracy, long epochMillis) {
+        Board board = boards[ordinal];
+        int wpmTenths = tenths(wpm);
+        for (int i = MAX_TENTHS - wpmTenths + 1; i <= MAX_TENTHS + 1; i += i & -i) {
+            board.tree.incrementAndGet(i);
+        }
+        board.total.incrementAndGet();
+
+        Entry entry = new Entry(player, wpmTenths, accuracy, epochMillis, seq.getAndIncrement());
+        if (board.topSize.get() < KEEP || FASTEST_FIRST.compare(entry, board.top.last()) < 0) {
+            board.top.add(entry);
+            if (board.topSize.incrementAndGet() > KEEP && board.top.pollLast() != null) {
+                board.topSize.decrementAndGet();
+            }
+        }
+        return rank(ordinal, wpm);
+    }
+
+    // 1 + results strictly faster, a tie shares the rank
+    int rank(int ordinal, double wpm) {
+        return 1 + faster(boards[ordinal], tenths(wpm));
+    }
+
+    int total(int ordinal) {
+        return boards[ordinal].total.get();
+    }
+
+    // fastest first, at most n
+    List<Entry> top(int ordinal, int n) {
+        List<Entry> entries = new ArrayList<>(Math.min(n, KEEP));
+        for (Entry entry : boards[ordinal].top) {
+            if (entries.size() >= n) break;
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static int faster(Board board, int wpmTenths) {
+        int sum = 0;
+        for (int i = MAX_TENTHS - wpmTenths; i > 0; i -= i & -i) {
+            sum += board.tree.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,104 @@
+package typingtester;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+// load generator for the leaderboard: a number of clients, each submitting
+// results back to back for a while, then submissions/s and latency percentiles
+//   LeaderboardLoad [seconds] [clients] [url]
+// without a url it starts a server on a free loopback port in this process
+// the first WARMUP_SECONDS aren't counted (jit), latencies go into per client
+// LatencyHistogram buckets, merged at the end
+class LeaderboardLoad {
+    private static final int WARMUP_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        LeaderboardServer server = null;
+        String url;
+        if (args.length > 2) {
+            url = args[2];
+        } else {
+            server = LeaderboardServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), new LeaderboardIndex());
+            url = "http://127.0.0.1:" + server.port();
+        }
+        URI submit = URI.create((url.endsWith("/") ? url.substring(0, url.length() - 1) : url) + "/submit");
+        HttpClient http = HttpClient.newHttpClient();
+
+        long[][] buckets = new long[clients][LatencyHistogram.bucket(Long.MAX_VALUE) + 1];
+        AtomicLong failures = new AtomicLong();
+        long measureFrom = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+        long deadline = measureFrom + seconds * 1_000_000_000L;
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            long[] mine = buckets[c];
+            Random random = new Random(c);
+            String player = "load-" + c;
+            threads[c] = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    String form = "player=" + player
+                        + "&difficulty=" + Passages.LEVELS[random.nextInt(Passages.LEVELS.length)]
+                        + "&wpm=" + (20 + random.nextInt(1000) / 10.0)
+                        + "&accuracy=" + (70 + random.nextInt(31));
+                    HttpRequest request = HttpRequest.newBuilder(submit)
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200 && start >= measureFrom) failures.incrementAndGet();
+                    } catch (IOException e) {
+                        if (start >= measureFrom) failures.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (start >= measureFrom) mine[LatencyHistogram.bucket((System.nanoTime() - start) / 1000)]++;
+                }
+            }, "load-" + c);
+            threads[c].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] merged = new long[buckets[0].length];
+        long total = 0;
+        for (long[] mine : buckets) {
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += mine[i];
+                total += mine[i];
+            }
+        }
+        System.out.printf("%d clients, %d s after %d s warmup: %d submissions (%.0f/s), %d failed%n",
+            clients, seconds, WARMUP_SECONDS, total, total / (double) seconds, failures.get());
+        System.out.printf("latency p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms%n",
+            percentileMs(merged, total, 0.5), percentileMs(merged, total, 0.9),
+            percentileMs(merged, total, 0.99), percentileMs(merged, total, 0.999));
+        if (server != null) {
+            for (int i = 0; i < Passages.LEVELS.length; i++) {
+                System.out.println(Passages.LEVELS[i] + ": " + server.index.total(i) + " results");
+            }
+            server.stop();
+        }
+    }
+
+    // upper edge of the bucket holding the p-th sample
+    private static double percentileMs(long[] buckets, long total, double p) {
+        long rank = Math.max(1, (long) Math.ceil(p * total));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return LatencyHistogram.lowerBound(i + 1) / 1000.0;
+        }
+        return 0;
+    }
+}
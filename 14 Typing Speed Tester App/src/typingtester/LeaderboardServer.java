@@ -0,0 +1,207 @@
+package typingtester;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// a leaderboard for a room of machines, on the JDK's built in http server
+// one machine runs it (inside the app with -Dtypingtester.leaderboardPort, or
+// on its own with main), the others point -Dtypingtester.leaderboard at it
+//
+//   POST /submit   player=..&difficulty=Expert&wpm=72.5&accuracy=96  ->  rank,total
+//   GET  /top?difficulty=Expert&n=10     ->  rank,player,wpm,accuracy,epochMillis per line
+//   GET  /rank?difficulty=Expert&wpm=72.5  ->  rank,total
+//
+// plain text in and out, urlencoded forms for the requests. requests run on
+// virtual threads where the JDK has them (21+), on a fixed pool before that
+class LeaderboardServer {
+    static final int DEFAULT_TOP = 10;
+    private static final int MAX_TOP = 100;
+    private static final int MAX_BODY = 4096;
+    private static final int MAX_PLAYER = 32;
+
+    final LeaderboardIndex index;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private LeaderboardServer(HttpServer server, ExecutorService executor, LeaderboardIndex index) {
+        this.server = server;
+        this.executor = executor;
+        this.index = index;
+    }
+
+    // port 0 picks a free one, see port()
+    static LeaderboardServer start(InetSocketAddress address, LeaderboardIndex index) throws IOException {
+        // replies go out as headers + body, without this Nagle holds the body
+        // back for the client's delayed ack (~40 ms a request). read once, by
+        // the first server created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(address, 0);
+        ExecutorService executor = newExecutor();
+        LeaderboardServer leaderboard = new LeaderboardServer(server, executor, index);
+        server.createContext("/submit", leaderboard.handler("POST", leaderboard::submit));
+        server.createContext("/top", leaderboard.handler("GET", leaderboard::top));
+        server.createContext("/rank", leaderboard.handler("GET", leaderboard::rank));
+        server.setExecutor(executor);
+        server.start();
+        return leaderboard;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is JDK 21, looked up so this
+    // still builds and runs on 17
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()), r -> {
+                Thread thread = new Thread(r, "leaderboard-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface Action {
+        String handle(Map<String, String> params) throws BadRequest;
+    }
+
+    private static final class BadRequest extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        BadRequest(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private HttpHandler handler(String method, Action action) {
+        return exchange -> {
+            try (exchange) {
+                int status = 200;
+                String body;
+                try {
+                    if (!method.equals(exchange.getRequestMethod())) throw new BadRequest(405, method + " only");
+                    String form = method.equals("POST") ? readBody(exchange) : exchange.getRequestURI().getRawQuery();
+                    body = action.handle(parseForm(form));
+                } catch (BadRequest e) {
+                    status = e.status;
+                    body = e.getMessage() + "\n";
+                } catch (IllegalArgumentException e) {
+                    status = 400; // bad % escape
+                    body = "malformed request\n";
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        };
+    }
+
+    private String submit(Map<String, String> params) throws BadRequest {
+        int ordinal = difficulty(params);
+        double wpm = number(params, "wpm");
+        int accuracy = (int) number(params, "accuracy");
+        if (accuracy < 0 || accuracy > 100) throw new BadRequest(400, "accuracy must be 0-100");
+        int rank = index.submit(ordinal, player(params.get("player")), wpm, accuracy, System.currentTimeMillis());
+        return rank + "," + index.total(ordinal) + "\n";
+    }
+
+    private String top(Map<String, String> params) throws BadRequest {
+        int ordinal = difficulty(params);
+        int n = params.containsKey("n") ? (int) number(params, "n") : DEFAULT_TOP;
+        StringBuilder sb = new StringBuilder();
+        for (LeaderboardIndex.Entry entry : index.top(ordinal, Math.max(0, Math.min(MAX_TOP, n)))) {
+            double wpm = entry.wpmTenths / 10.0;
+            sb.append(index.rank(ordinal, wpm)).append(',').append(entry.player).append(',')
+              .append(wpm).append(',').append(entry.accuracy).append(',').append(entry.epochMillis).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private String rank(Map<String, String> params) throws BadRequest {
+        int ordinal = difficulty(params);
+        return index.rank(ordinal, number(params, "wpm")) + "," + index.total(ordinal) + "\n";
+    }
+
+    private static int difficulty(Map<String, String> params) throws BadRequest {
+        int ordinal = Passages.levelOrdinal(params.get("difficulty"));
+        if (ordinal < 0) {
+            throw new BadRequest(404, "difficulty must be one of " + String.join(", ", Passages.LEVELS));
+        }
+        return ordinal;
+    }
+
+    private static double number(Map<String, String> params, String name) throws BadRequest {
+        String value = params.get(name);
+        try {
+            double number = Double.parseDouble(value);
+            if (number >= 0 && number < Integer.MAX_VALUE) return number;
+        } catch (NullPointerException | NumberFormatException e) {
+            // below
+        }
+        throw new BadRequest(400, name + " must be a non negative number");
+    }
+
+    // the names end up in csv lines
+    static String player(String name) {
+        if (name == null || name.isBlank()) return "anonymous";
+        String clean = name.strip().replace(',', ' ').replace('\n', ' ').replace('\r', ' ');
+        return clean.length() > MAX_PLAYER ? clean.substring(0, MAX_PLAYER) : clean;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException, BadRequest {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY + 1);
+            if (body.length > MAX_BODY) throw new BadRequest(413, "request too large");
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseForm(String form) {
+        Map<String, String> params = new HashMap<>();
+        if (form == null || form.isEmpty()) return params;
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                       URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    //   LeaderboardServer [port]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        LeaderboardServer server = start(new InetSocketAddress(port), new LeaderboardIndex());
+        System.out.println("Leaderboard on port " + server.port());
+    }
+}
@@ -0,0 +1,169 @@
+package typingtester;
+
+import java.awt.Color;
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.awt.HeadlessException;
+import javax.swing.JLabel;
+import javax.swing.JProgressBar;
+
+// the live numbers on the typing tab (wpm, accuracy, mistakes, total tests,
+// clock, progress). callers set values as often as they like, the view
+// rounds them to what's actually displayed and at most once per display
+// frame pushes the ones that differ from what's on screen - a tick where
+// nothing visible changed doesn't touch a single component
+// text is built in one reused StringBuilder, colors are the constants below
+// EDT only
+class LiveStatsView {
+    static final Color GOOD = new Color(46, 204, 113);
+    static final Color FAIR = new Color(241, 196, 15);
+    static final Color POOR = new Color(231, 76, 60);
+    private static final int FALLBACK_FRAME_MILLIS = 16;
+    private static final int UNKNOWN = -1;
+
+    private final JLabel wpmLabel, accuracyLabel, mistakeLabel, totalTestsLabel, clockLabel;
+    private final JProgressBar accuracyBar, progressBar;
+    private final javax.swing.Timer frame;
+    private final StringBuilder text = new StringBuilder(40);
+
+    // wanted, in displayed units (tenths where the label shows one decimal)
+    private int wpmTenths, accuracy = 100, mistakes, totalTests, progressTenths;
+    private int clockSeconds = UNKNOWN; // UNKNOWN = the label shows a status message instead
+    private boolean countdown;
+
+    // on screen now
+    private int shownWpm = UNKNOWN, shownAccuracy = UNKNOWN, shownMistakes = UNKNOWN,
+            shownTotal = UNKNOWN, shownProgress = UNKNOWN, shownClock = UNKNOWN;
+    private boolean shownCountdown;
+
+    LiveStatsView(JLabel wpmLabel, JLabel accuracyLabel, JLabel mistakeLabel, JLabel totalTestsLabel,
+                  JLabel clockLabel, JProgressBar accuracyBar, JProgressBar progressBar) {
+        this.wpmLabel = wpmLabel;
+        this.accuracyLabel = accuracyLabel;
+        this.mistakeLabel = mistakeLabel;
+        this.totalTestsLabel = totalTestsLabel;
+        this.clockLabel = clockLabel;
+        this.accuracyBar = accuracyBar;
+        this.progressBar = progressBar;
+        frame = new javax.swing.Timer(frameMillis(), e -> flush());
+        frame.setRepeats(false);
+    }
+
+    // one refresh of the default screen, 16 ms when it can't be asked
+    static int frameMillis() {
+        if (GraphicsEnvironment.isHeadless()) return FALLBACK_FRAME_MILLIS;
+        try {
+            int hz = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+            return hz == DisplayMode.REFRESH_RATE_UNKNOWN || hz <= 0 ? FALLBACK_FRAME_MILLIS : Math.max(1, 1000 / hz);
+        } catch (HeadlessException e) {
+            return FALLBACK_FRAME_MILLIS;
+        }
+    }
+
+    void setStats(double wpm, int accuracy, int mistakes) {
+        this.wpmTenths = (int) Math.round(wpm * 10);
+        this.accuracy = accuracy;
+        this.mistakes = mistakes;
+        changed();
+    }
+
+    // tests in the history, from the analytics snapshot
+    void setTotalTests(int totalTests) {
+        this.totalTests = totalTests;
+        changed();
+    }
+
+    // elapsed time, or time left when counting down
+    void setClock(int seconds, boolean countdown) {
+        this.clockSeconds = Math.max(0, seconds);
+        this.countdown = countdown;
+        changed();
+    }
+
+    void setProgress(double percent) {
+        progressTenths = (int) Math.round(percent * 10);
+        changed();
+    }
+
+    // a message in place of the clock, shown right away - these come from
+    // button presses, not from the tick. the clock comes back with the next setClock
+    void showStatus(String message) {
+        clockSeconds = shownClock = UNKNOWN;
+        clockLabel.setText(message);
+    }
+
+    // a value that rounds to what's already shown doesn't even wake the timer
+    private void changed() {
+        if (frame.isRunning()) return;
+        if (wpmTenths != shownWpm || accuracy != shownAccuracy || mistakes != shownMistakes
+                || totalTests != shownTotal || progressTenths != shownProgress
+                || clockSeconds != UNKNOWN && (clockSeconds != shownClock || countdown != shownCountdown)) {
+            frame.start();
+        }
+    }
+
+    // pushes whatever differs from the screen, normally called by the frame timer
+    void flush() {
+        if (frame.isRunning()) frame.stop();
+        if (wpmTenths != shownWpm) {
+            shownWpm = wpmTenths;
+            text.setLength(0);
+            wpmLabel.setText(appendTenths(text.append("WPM: "), wpmTenths).toString());
+        }
+        if (accuracy != shownAccuracy) {
+            shownAccuracy = accuracy;
+            text.setLength(0);
+            accuracyLabel.setText(text.append("Accuracy: ").append(accuracy).append('%').toString());
+            text.setLength(0);
+            accuracyBar.setValue(accuracy);
+            accuracyBar.setString(text.append(accuracy).append("% Accurate").toString());
+            recolor(accuracyBar, accuracy >= 95 ? GOOD : accuracy >= 85 ? FAIR : POOR);
+        }
+        if (mistakes != shownMistakes) {
+            shownMistakes = mistakes;
+            text.setLength(0);
+            mistakeLabel.setText(text.append("Mistakes: ").append(mistakes).toString());
+        }
+        if (totalTests != shownTotal) {
+            shownTotal = totalTests;
+            text.setLength(0);
+            totalTestsLabel.setText(text.append("Total Tests: ").append(totalTests).toString());
+        }
+        if (clockSeconds != UNKNOWN && (clockSeconds != shownClock || countdown != shownCountdown)) {
+            shownClock = clockSeconds;
+            shownCountdown = countdown;
+            text.setLength(0);
+            text.append(countdown ? "⏳ Time Left: " : "⏱️ Time: ");
+            appendTwoDigits(text, clockSeconds / 60).append(':');
+            clockLabel.setText(appendTwoDigits(text, clockSeconds % 60).toString());
+        }
+        if (progressTenths != shownProgress) {
+            shownProgress = progressTenths;
+            progressBar.setValue(progressTenths / 10);
+            text.setLength(0);
+            progressBar.setString(appendTenths(text.append("Progress: "), progressTenths).append('%').toString());
+            // 3 colors for levels of progression
+            recolor(progressBar, progressTenths < 300 ? POOR : progressTenths < 700 ? FAIR : GOOD);
+        }
+    }
+
+    private static void recolor(JProgressBar bar, Color color) {
+        if (bar.getForeground() != color) bar.setForeground(color);
+    }
+
+    // same output as %.1f
+    private static StringBuilder appendTenths(StringBuilder sb, int tenths) {
+        if (tenths < 0) {
+            sb.append('-');
+            tenths = -tenths;
+        }
+        return sb.append(tenths / 10).append('.').append((char) ('0' + tenths % 10));
+    }
+
+    // same output as %02d
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        if (value < 10) sb.append('0');
+        return sb.append(value);
+    }
+}
@@ -0,0 +1,112 @@
+package typingtester;
+
+import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Highlighter;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.Segment;
+
+// colors the prompt by what the session says about each char: right, wrong,
+// the next one to type, still to come (left alone)
+// nothing is stored per char - paint() reads the diff for the chars inside the
+// clip only, and edited() repaints just the span an edit could have changed,
+// so a keystroke costs the same on a one line prompt and a 5,000 word one
+//
+// added once as a highlight over the prompt, p0/p1 are ignored since the
+// painter follows the whole document
+class MistakePainter implements Highlighter.HighlightPainter {
+    static final Color CORRECT = new Color(200, 245, 200);
+    static final Color WRONG = new Color(255, 185, 185);
+    static final Color NEXT = new Color(255, 255, 200);
+
+    private final JTextComponent prompt;
+    private final Segment glyph = new Segment();
+    private TypingSession session;
+    private boolean enabled = true;
+
+    MistakePainter(JTextComponent prompt) {
+        this.prompt = prompt;
+        try {
+            prompt.getHighlighter().addHighlight(0, 0, this);
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void setSession(TypingSession session) {
+        this.session = session;
+        prompt.repaint();
+    }
+
+    void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+        this.enabled = enabled;
+        prompt.repaint();
+    }
+
+    // after the session saw an edit at 'offset': everything from there up to the
+    // old or new end may have changed state, plus the "next" char just past it
+    void edited(int offset, int oldLength, int newLength) {
+        if (!enabled) return;
+        int end = Math.min(Math.max(oldLength, newLength) + 1, prompt.getDocument().getLength());
+        if (offset >= end) return;
+        try {
+            Rectangle2D from = prompt.modelToView2D(offset);
+            Rectangle2D to = prompt.modelToView2D(end);
+            if (from == null || to == null) return;
+            if (from.getY() == to.getY()) {
+                // one line, x of the end position is where the last damaged char stops
+                prompt.repaint((int) from.getX(), (int) from.getY(),
+                    (int) Math.ceil(to.getX() - from.getX()) + 1, (int) Math.ceil(from.getHeight()));
+            } else {
+                prompt.repaint(0, (int) from.getY(), prompt.getWidth(),
+                    (int) Math.ceil(to.getMaxY() - from.getY()));
+            }
+        } catch (BadLocationException e) {
+            prompt.repaint();
+        }
+    }
+
+    @Override
+    public void paint(Graphics g, int p0, int p1, Shape bounds, JTextComponent c) {
+        if (!enabled || session == null) return;
+        int docLength = c.getDocument().getLength();
+        int typed = Math.min(session.typedLength(), docLength);
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = bounds.getBounds();
+        // whole lines through the clip, chars past the "next" one have nothing to paint
+        int first = c.viewToModel2D(new Point(0, clip.y));
+        int last = c.viewToModel2D(new Point(c.getWidth(), clip.y + clip.height));
+        int end = Math.min(Math.min(last + 1, docLength), typed + 1);
+        if (first < 0 || first >= end) return;
+
+        FontMetrics metrics = c.getFontMetrics(c.getFont());
+        try {
+            Rectangle2D here = c.modelToView2D(first);
+            if (here == null) return; // not laid out yet
+            for (int i = first; i < end; i++) {
+                Rectangle2D next = c.modelToView2D(i + 1);
+                double width;
+                if (next != null && next.getY() == here.getY()) {
+                    width = next.getX() - here.getX();
+                } else {
+                    // last char of a wrapped line
+                    c.getDocument().getText(i, 1, glyph);
+                    width = metrics.charWidth(glyph.first());
+                }
+                g.setColor(i == typed ? NEXT : session.isMismatch(i) ? WRONG : CORRECT);
+                g.fillRect((int) here.getX(), (int) here.getY(), (int) Math.ceil(width), (int) Math.ceil(here.getHeight()));
+                if (next == null) break;
+                here = next;
+            }
+        } catch (BadLocationException e) {
+            // document changed under us, the next repaint gets it right
+        }
+    }
+}
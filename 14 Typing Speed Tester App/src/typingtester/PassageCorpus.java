@@ -0,0 +1,199 @@
+package typingtester;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// prompt passages read from a memory mapped file
+// loading reads the index at the end of the file (5 bytes a passage) into one
+// offset array per difficulty, the text stays on disk until a passage is
+// picked and only that one gets decoded - heap grows by 4 bytes a passage
+//
+// header (16 bytes): magic, version, passage count, index offset (0 = no index)
+// record: difficulty ordinal (byte), utf-8 length (int), utf-8 bytes
+// index: per passage, difficulty ordinal (byte) + record offset (int)
+// without an index the records are walked instead, which touches every page
+class PassageCorpus {
+    private static final int MAGIC = 0x54535043; // "TSPC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER = 5;
+    private static final int INDEX_ENTRY = 5;
+
+    private final ByteBuffer data;
+    private final int[][] offsets = new int[Passages.LEVELS.length][]; // record starts per difficulty
+    private final int[] counts = new int[Passages.LEVELS.length];
+
+    private PassageCorpus(ByteBuffer data) throws IOException {
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("Not a passage corpus");
+        }
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = new int[16];
+        }
+        int declared = data.getInt(8);
+        int index = data.getInt(12);
+        if (index != 0) {
+            if (index < HEADER_SIZE || (long) index + (long) declared * INDEX_ENTRY > data.limit()) {
+                throw new IOException("Corpus index out of range");
+            }
+            for (int n = 0; n < declared; n++) {
+                int entry = index + n * INDEX_ENTRY;
+                int at = data.getInt(entry + 1);
+                if (at < HEADER_SIZE || at > index - RECORD_HEADER) throw new IOException("Bad index entry " + n);
+                addOffset(data.get(entry), at);
+            }
+            return;
+        }
+        int at = HEADER_SIZE;
+        for (int n = 0; n < declared; n++) {
+            if (at + RECORD_HEADER > data.limit()) throw new IOException("Corpus truncated at passage " + n);
+            int length = data.getInt(at + 1);
+            if (length < 0 || at + RECORD_HEADER + length > data.limit()) {
+                throw new IOException("Corpus truncated at passage " + n);
+            }
+            addOffset(data.get(at), at);
+            at += RECORD_HEADER + length;
+        }
+    }
+
+    private void addOffset(int ordinal, int at) {
+        // unknown difficulties are skipped, a newer file can add levels
+        if (ordinal < 0 || ordinal >= offsets.length) return;
+        if (counts[ordinal] == offsets[ordinal].length) {
+            offsets[ordinal] = Arrays.copyOf(offsets[ordinal], counts[ordinal] * 2);
+        }
+        offsets[ordinal][counts[ordinal]++] = at;
+    }
+
+    static PassageCorpus open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Corpus over 2 GB");
+            // the mapping stays valid after the channel is closed
+            return new PassageCorpus(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // the passages compiled into the app, same format but on the heap
+    static PassageCorpus builtIn() {
+        try {
+            return new PassageCorpus(ByteBuffer.wrap(encode(builtInPassages())));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ~/.typingtester/passages.corpus unless -Dtypingtester.corpus=<file> says otherwise
+    static Path defaultFile() {
+        String file = System.getProperty("typingtester.corpus");
+        if (file != null) return Paths.get(file);
+        return Paths.get(System.getProperty("user.home"), ".typingtester", "passages.corpus");
+    }
+
+    int count(int ordinal) {
+        return ordinal >= 0 && ordinal < counts.length ? counts[ordinal] : 0;
+    }
+
+    int total() {
+        int total = 0;
+        for (int count : counts) total += count;
+        return total;
+    }
+
+    // decodes just this one passage
+    String get(int ordinal, int index) {
+        int at = offsets[ordinal][index];
+        int length = data.getInt(at + 1);
+        if (length < 0 || at + RECORD_HEADER + length > data.limit()) {
+            throw new IllegalStateException("Corrupt passage record at " + at);
+        }
+        byte[] bytes = new byte[length];
+        data.get(at + RECORD_HEADER, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // null when the corpus has nothing for this difficulty
+    String pick(int ordinal, Random random) {
+        int count = count(ordinal);
+        return count == 0 ? null : get(ordinal, random.nextInt(count));
+    }
+
+    private static List<List<String>> builtInPassages() {
+        List<List<String>> byLevel = new ArrayList<>();
+        for (String level : Passages.LEVELS) {
+            byLevel.add(Arrays.asList(Passages.DIFFICULTY_TEXTS.get(level)));
+        }
+        return byLevel;
+    }
+
+    // byLevel.get(ordinal) = the passages for that difficulty
+    static byte[] encode(List<List<String>> byLevel) {
+        List<byte[]> encoded = new ArrayList<>();
+        List<Integer> ordinals = new ArrayList<>();
+        int size = HEADER_SIZE;
+        for (int ordinal = 0; ordinal < byLevel.size(); ordinal++) {
+            for (String passage : byLevel.get(ordinal)) {
+                byte[] bytes = passage.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                ordinals.add(ordinal);
+                size += RECORD_HEADER + bytes.length;
+            }
+        }
+        int index = size;
+        size += encoded.size() * INDEX_ENTRY;
+        ByteBuffer out = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(encoded.size()).putInt(index);
+        int[] starts = new int[encoded.size()];
+        for (int i = 0; i < encoded.size(); i++) {
+            starts[i] = out.position();
+            out.put((byte) (int) ordinals.get(i)).putInt(encoded.get(i).length).put(encoded.get(i));
+        }
+        for (int i = 0; i < encoded.size(); i++) {
+            out.put((byte) (int) ordinals.get(i)).putInt(starts[i]);
+        }
+        return out.array();
+    }
+
+    // builds a corpus file from plain text, one passage per line:
+    //   java -cp TypingTestApp.jar typingtester.PassageCorpus out.corpus Beginner=beginner.txt Expert=expert.txt ...
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: PassageCorpus <out.corpus> <Level>=<passages.txt> ...");
+            System.exit(2);
+        }
+        List<List<String>> byLevel = new ArrayList<>();
+        for (int i = 0; i < Passages.LEVELS.length; i++) {
+            byLevel.add(new ArrayList<>());
+        }
+        for (int i = 1; i < args.length; i++) {
+            int eq = args[i].indexOf('=');
+            int ordinal = eq < 0 ? -1 : Passages.levelOrdinal(args[i].substring(0, eq));
+            if (ordinal < 0) {
+                System.err.println("expected <Level>=<file> with Level one of " + String.join(", ", Passages.LEVELS) + ": " + args[i]);
+                System.exit(2);
+            }
+            for (String line : Files.readAllLines(Paths.get(args[i].substring(eq + 1)), StandardCharsets.UTF_8)) {
+                String passage = line.trim();
+                if (!passage.isEmpty()) byLevel.get(ordinal).add(passage);
+            }
+        }
+        Path out = Paths.get(args[0]);
+        Files.write(out, encode(byLevel));
+        PassageCorpus written = open(out);
+        for (int i = 0; i < Passages.LEVELS.length; i++) {
+            System.out.println(Passages.LEVELS[i] + ": " + written.count(i));
+        }
+        System.out.println("Wrote " + written.total() + " passages to " + out.toAbsolutePath());
+    }
+}
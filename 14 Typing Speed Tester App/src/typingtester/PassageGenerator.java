@@ -0,0 +1,328 @@
+package typingtester;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// word level bigram model for making up new passages, so regulars can't just
+// memorize the built in ones
+// everything is primitive arrays: token text in one char[], successors of each
+// token as a slice of next[] with running totals in cumulative[] so a step is
+// one nextInt + a binary search
+//
+// file (little endian): magic, version, vocab size, char count, transition count,
+// start count, then chars, tokenStart, tokenLevel, rowStart, next, cumulative,
+// startToken, startCumulative
+class PassageGenerator {
+    private static final int MAGIC = 0x54534E47; // "TSNG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final int RETRIES = 16; // draws before giving up on a too-hard successor
+
+    // per difficulty ordinal: words wanted and the longest word allowed
+    static final int[] WORDS = {6, 11, 20, 25};
+    static final int[] MAX_LETTERS = {5, 10, 14, Integer.MAX_VALUE};
+
+    private final char[] chars;
+    private final int[] tokenStart;     // token t is chars[tokenStart[t], tokenStart[t + 1])
+    private final byte[] tokenLevel;    // easiest difficulty the token may appear at
+    private final int[] rowStart;       // successors of t are next[rowStart[t], rowStart[t + 1])
+    private final int[] next;
+    private final int[] cumulative;     // running count within the row
+    private final int[] startToken;     // words that begin a sentence
+    private final int[] startCumulative;
+    private final int[][] allowed;      // per difficulty, the tokens it may use - fallback when sampling fails
+
+    private PassageGenerator(char[] chars, int[] tokenStart, byte[] tokenLevel, int[] rowStart, int[] next,
+                             int[] cumulative, int[] startToken, int[] startCumulative) {
+        this.chars = chars;
+        this.tokenStart = tokenStart;
+        this.tokenLevel = tokenLevel;
+        this.rowStart = rowStart;
+        this.next = next;
+        this.cumulative = cumulative;
+        this.startToken = startToken;
+        this.startCumulative = startCumulative;
+        allowed = new int[WORDS.length][];
+        for (int level = 0; level < WORDS.length; level++) {
+            int[] tokens = new int[vocabularySize()];
+            int n = 0;
+            for (int t = 0; t < tokens.length; t++) {
+                if (tokenLevel[t] <= level) tokens[n++] = t;
+            }
+            allowed[level] = Arrays.copyOf(tokens, n);
+        }
+    }
+
+    int vocabularySize() {
+        return tokenStart.length - 1;
+    }
+
+    // ~/.typingtester/passages.model unless -Dtypingtester.model=<file> says otherwise
+    static Path defaultFile() {
+        String file = System.getProperty("typingtester.model");
+        if (file != null) return Paths.get(file);
+        return Paths.get(System.getProperty("user.home"), ".typingtester", "passages.model");
+    }
+
+    // trained on the built in passages, for when there's no model file
+    static PassageGenerator builtIn() {
+        List<String> texts = new ArrayList<>();
+        for (String level : Passages.LEVELS) {
+            texts.addAll(Arrays.asList(Passages.DIFFICULTY_TEXTS.get(level)));
+        }
+        return train(texts);
+    }
+
+    // a new passage for difficulty ordinal 'level', capitalized and ending a sentence
+    String generate(int level, Random random) {
+        level = Math.max(0, Math.min(WORDS.length - 1, level));
+        if (allowed[level].length == 0) return null;
+        StringBuilder out = new StringBuilder(WORDS[level] * 10);
+        int token = pickStart(level, random);
+        int words = 0;
+        // run on a few words past the target looking for a natural sentence end
+        int limit = WORDS[level] + WORDS[level] / 2;
+        while (true) {
+            if (words > 0) out.append(' ');
+            out.append(chars, tokenStart[token], tokenStart[token + 1] - tokenStart[token]);
+            words++;
+            if (words >= WORDS[level] && endsSentence(token) || words >= limit) break;
+            token = pickNext(token, level, random);
+        }
+        out.setCharAt(0, Character.toUpperCase(out.charAt(0)));
+        char last = out.charAt(out.length() - 1);
+        if (last != '.' && last != '!' && last != '?') {
+            while (out.length() > 1 && !Character.isLetterOrDigit(out.charAt(out.length() - 1))) {
+                out.setLength(out.length() - 1);
+            }
+            out.append('.');
+        }
+        return out.toString();
+    }
+
+    private int pickStart(int level, Random random) {
+        if (startToken.length > 0) {
+            int total = startCumulative[startToken.length - 1];
+            for (int i = 0; i < RETRIES; i++) {
+                int token = startToken[search(startCumulative, 0, startToken.length, random.nextInt(total))];
+                if (tokenLevel[token] <= level) return token;
+            }
+        }
+        return allowed[level][random.nextInt(allowed[level].length)];
+    }
+
+    private int pickNext(int token, int level, Random random) {
+        int from = rowStart[token], to = rowStart[token + 1];
+        if (from < to) {
+            int total = cumulative[to - 1];
+            for (int i = 0; i < RETRIES; i++) {
+                int candidate = next[search(cumulative, from, to, random.nextInt(total))];
+                if (tokenLevel[candidate] <= level) return candidate;
+            }
+        }
+        // dead end or nothing easy enough follows, start a fresh sentence
+        return pickStart(level, random);
+    }
+
+    // first index in [from, to) whose running count is above draw
+    private static int search(int[] running, int from, int to, int draw) {
+        int lo = from, hi = to - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (running[mid] > draw) hi = mid; else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    private boolean endsSentence(int token) {
+        char last = chars[tokenStart[token + 1] - 1];
+        return last == '.' || last == '!' || last == '?';
+    }
+
+    static PassageGenerator train(List<String> texts) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> vocabulary = new ArrayList<>();
+        Map<Long, int[]> pairs = new HashMap<>();
+        Map<Integer, int[]> starts = new HashMap<>();
+        for (String text : texts) {
+            int previous = -1;
+            for (String word : text.split("\\s+")) {
+                if (word.isEmpty()) continue;
+                Integer id = ids.get(word);
+                if (id == null) {
+                    id = vocabulary.size();
+                    ids.put(word, id);
+                    vocabulary.add(word);
+                }
+                if (previous < 0 || endsSentence(vocabulary.get(previous))) {
+                    starts.computeIfAbsent(id, k -> new int[1])[0]++;
+                }
+                if (previous >= 0) {
+                    pairs.computeIfAbsent(((long) previous << 32) | id, k -> new int[1])[0]++;
+                }
+                previous = id;
+            }
+        }
+
+        int vocab = vocabulary.size();
+        int[] tokenStart = new int[vocab + 1];
+        byte[] tokenLevel = new byte[vocab];
+        StringBuilder text = new StringBuilder();
+        for (int t = 0; t < vocab; t++) {
+            String word = vocabulary.get(t);
+            tokenStart[t] = text.length();
+            text.append(word);
+            tokenLevel[t] = (byte) levelFor(word);
+        }
+        tokenStart[vocab] = text.length();
+        char[] chars = new char[text.length()];
+        text.getChars(0, text.length(), chars, 0);
+
+        // sorted keys group the successors by the previous token
+        long[] keys = new long[pairs.size()];
+        int k = 0;
+        for (long key : pairs.keySet()) keys[k++] = key;
+        Arrays.sort(keys);
+        int[] rowStart = new int[vocab + 1];
+        int[] next = new int[keys.length];
+        int[] cumulative = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            int previous = (int) (keys[i] >>> 32);
+            rowStart[previous + 1]++;
+            next[i] = (int) keys[i];
+            boolean sameRow = i > 0 && (int) (keys[i - 1] >>> 32) == previous;
+            cumulative[i] = (sameRow ? cumulative[i - 1] : 0) + pairs.get(keys[i])[0];
+        }
+        for (int t = 0; t < vocab; t++) {
+            rowStart[t + 1] += rowStart[t];
+        }
+
+        int[] startToken = new int[starts.size()];
+        int[] startCumulative = new int[starts.size()];
+        int s = 0, running = 0;
+        for (Map.Entry<Integer, int[]> entry : starts.entrySet()) {
+            startToken[s] = entry.getKey();
+            running += entry.getValue()[0];
+            startCumulative[s++] = running;
+        }
+        return new PassageGenerator(chars, tokenStart, tokenLevel, rowStart, next, cumulative, startToken, startCumulative);
+    }
+
+    private static boolean endsSentence(String word) {
+        char last = word.charAt(word.length() - 1);
+        return last == '.' || last == '!' || last == '?';
+    }
+
+    // easiest difficulty whose word length cap fits the letters in the word
+    private static int levelFor(String word) {
+        int letters = 0;
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isLetterOrDigit(word.charAt(i))) letters++;
+        }
+        for (int level = 0; level < MAX_LETTERS.length; level++) {
+            if (letters <= MAX_LETTERS[level]) return level;
+        }
+        return MAX_LETTERS.length - 1;
+    }
+
+    void save(Path file) throws IOException {
+        int vocab = vocabularySize();
+        long size = HEADER_SIZE + chars.length * 2L + (vocab + 1) * 4L + vocab + (vocab + 1) * 4L
+            + next.length * 8L + startToken.length * 8L;
+        if (size > Integer.MAX_VALUE) throw new IOException("Model over 2 GB");
+        ByteBuffer out = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(vocab).putInt(chars.length).putInt(next.length).putInt(startToken.length);
+        out.asCharBuffer().put(chars);
+        out.position(out.position() + chars.length * 2);
+        putInts(out, tokenStart);
+        out.put(tokenLevel);
+        putInts(out, rowStart);
+        putInts(out, next);
+        putInts(out, cumulative);
+        putInts(out, startToken);
+        putInts(out, startCumulative);
+        out.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    static PassageGenerator load(Path file) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Model over 2 GB");
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (in.limit() < HEADER_SIZE || in.getInt() != MAGIC || in.getInt() != VERSION) {
+            throw new IOException("Not a passage model");
+        }
+        int vocab = in.getInt(), charCount = in.getInt(), transitions = in.getInt(), startCount = in.getInt();
+        long expected = HEADER_SIZE + charCount * 2L + (vocab + 1) * 8L + vocab + transitions * 8L + startCount * 8L;
+        if (vocab < 0 || charCount < 0 || transitions < 0 || startCount < 0 || expected != in.limit()) {
+            throw new IOException("Passage model is damaged");
+        }
+        char[] chars = new char[charCount];
+        in.asCharBuffer().get(chars);
+        in.position(in.position() + charCount * 2);
+        int[] tokenStart = getInts(in, vocab + 1);
+        byte[] tokenLevel = new byte[vocab];
+        in.get(tokenLevel);
+        int[] rowStart = getInts(in, vocab + 1);
+        int[] next = getInts(in, transitions);
+        int[] cumulative = getInts(in, transitions);
+        int[] startToken = getInts(in, startCount);
+        int[] startCumulative = getInts(in, startCount);
+        return new PassageGenerator(chars, tokenStart, tokenLevel, rowStart, next, cumulative, startToken, startCumulative);
+    }
+
+    private static void putInts(ByteBuffer out, int[] values) {
+        out.asIntBuffer().put(values);
+        out.position(out.position() + values.length * 4);
+    }
+
+    private static int[] getInts(ByteBuffer in, int count) {
+        int[] values = new int[count];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + count * 4);
+        return values;
+    }
+
+    // trains a model from plain text files and prints a sample per difficulty:
+    //   java -cp TypingTestApp.jar typingtester.PassageGenerator passages.model book1.txt book2.txt ...
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: PassageGenerator <out.model> <training.txt> ...");
+            System.exit(2);
+        }
+        List<String> texts = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            texts.add(new String(Files.readAllBytes(Paths.get(args[i])), StandardCharsets.UTF_8));
+        }
+        PassageGenerator model = train(texts);
+        Path out = Paths.get(args[0]);
+        model.save(out);
+        model = load(out);
+        System.out.println("Wrote " + out.toAbsolutePath() + " (" + model.vocabularySize() + " words, "
+            + model.next.length + " transitions)");
+        Random random = new Random();
+        for (int level = 0; level < Passages.LEVELS.length; level++) {
+            System.out.println(Passages.LEVELS[level] + ": " + model.generate(level, random));
+        }
+    }
+}
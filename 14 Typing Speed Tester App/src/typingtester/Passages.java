@@ -0,0 +1,51 @@
+package typingtester;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// built in prompts, kept out of the JFrame so headless code can use them
+final class Passages {
+    // combo box order, also the difficulty ordinal stored in the results log
+    static final String[] LEVELS = {"Beginner", "Intermediate", "Advanced", "Expert"};
+
+    static int levelOrdinal(String difficulty) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(difficulty)) return i;
+        }
+        return -1;
+    }
+
+    // sab difficulty in hashmaps
+    static final Map<String, String[]> DIFFICULTY_TEXTS = new HashMap<String, String[]>() {{
+        put("Beginner", new String[]{
+            "The cat sits on the mat.",
+            "I like to eat pizza.",
+            "The sun is bright today.",
+            "Dogs are very loyal pets.",
+            "Water is essential for life."
+        });
+        put("Intermediate", new String[]{
+            "The quick brown fox jumps over the lazy dog near the riverbank.",
+            "Programming requires logical thinking and creative problem-solving skills.",
+            "Technology continues to advance at an unprecedented rate in modern society.",
+            "Learning new languages opens doors to different cultures and opportunities.",
+            "The art of cooking combines science, creativity, and cultural traditions together."
+        });
+        put("Advanced", new String[]{
+            "Artificial intelligence and machine learning algorithms are revolutionizing industries across the globe, fundamentally changing how we approach complex computational problems.",
+            "The implementation of sophisticated data structures and algorithms requires not only theoretical understanding but also practical experience in optimizing performance characteristics.",
+            "Quantum computing represents a paradigm shift in computational capabilities, potentially solving problems that are intractable for classical computers through quantum superposition and entanglement.",
+            "Cybersecurity professionals must constantly adapt to emerging threats while implementing robust defense mechanisms that protect sensitive information from sophisticated adversaries.",
+            "The intersection of biotechnology and artificial intelligence is creating unprecedented opportunities for medical breakthroughs and personalized treatment methodologies."
+        });
+        put("Expert", new String[]{
+            "The epistemological foundations of contemporary philosophical discourse necessitate a comprehensive examination of phenomenological hermeneutics and post-structuralist critiques of traditional metaphysical paradigms.",
+            "Neuroplasticity research demonstrates that synaptic connections undergo continuous reorganization throughout the lifespan, challenging previous assumptions about fixed neural architectures and cognitive limitations.",
+            "Macroeconomic theory encompasses complex interdependencies between fiscal policy, monetary policy, international trade dynamics, and technological innovation cycles that influence long-term economic stability.",
+            "Bioinformatics algorithms must efficiently process vast genomic datasets while accounting for evolutionary relationships, structural variations, and epigenetic modifications that influence gene expression patterns.",
+            "Astrophysical simulations of galactic formation require sophisticated numerical methods to model gravitational interactions, dark matter distributions, and stellar nucleosynthesis processes across cosmological timescales."
+        });
+    }};
+
+    private Passages() { }
+}
@@ -0,0 +1,61 @@
+package typingtester;
+
+// xp, level, streaks and this run's totals - everything that outlives one test
+// history totals come from HistoryAnalytics, which reads the persisted log
+class PlayerProgress {
+    private double totalXP = 0;
+    private int currentLevel = 1;
+    private int currentStreak = 0, bestStreak = 0;
+    private double bestWPM = 0;
+    private int totalTests = 0;
+
+    // true when this pushed us into a new level
+    boolean addXp(double xp) {
+        if (xp <= 0) return false;
+        totalXP += xp;
+        int newLevel = Scoring.levelForXp(totalXP);
+        if (newLevel > currentLevel) {
+            currentLevel = newLevel;
+            return true;
+        }
+        return false;
+    }
+
+    // book keeping for a finished test, returns the xp reward (not added yet)
+    double recordResult(double wpm, int accuracy) {
+        totalTests++;
+        if (wpm > bestWPM) {
+            bestWPM = wpm;
+        }
+        
+        // streak ka kaam
+        if (accuracy >= Scoring.STREAK_ACCURACY) {
+            currentStreak++;
+            if (currentStreak > bestStreak) {
+                bestStreak = currentStreak;
+            }
+        } else {
+            currentStreak = 0;
+        }
+        return Scoring.completionXp(wpm, accuracy);
+    }
+
+    // clear history wipes the stats but you keep your xp and level
+    void clearStats() {
+        totalTests = 0;
+        bestWPM = 0;
+        currentStreak = 0;
+        bestStreak = 0;
+    }
+
+    double xpInCurrentLevel() {
+        return totalXP % Scoring.BASE_XP_PER_LEVEL;
+    }
+
+    double getTotalXP() { return totalXP; }
+    int getCurrentLevel() { return currentLevel; }
+    int getCurrentStreak() { return currentStreak; }
+    int getBestStreak() { return bestStreak; }
+    double getBestWPM() { return bestWPM; }
+    int getTotalTests() { return totalTests; }
+}
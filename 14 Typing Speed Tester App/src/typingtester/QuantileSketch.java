@@ -0,0 +1,214 @@
+package typingtester;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+// KLL streaming quantile sketch: ranks and quantiles of any number of values
+// in a few kilobytes, within ~1.5% rank error at k = 200, and exact until
+// the first k values have been seen
+//
+// values sit in levels, an item on level h stands for 2^h values. a level
+// that outgrows its capacity is sorted and every other item (random
+// odd/even) moves up one level. capacities shrink by 2/3 per level below the
+// top, so the whole sketch stays around 3k floats
+// an add is an append, the occasional compaction sorts one level (<= k items)
+// sketches with the same k merge by stacking their levels and compacting
+class QuantileSketch {
+    static final int DEFAULT_K = 200;
+    private static final double SHRINK = 2.0 / 3.0;
+
+    private final int k;
+    private float[][] levels = {new float[8]};
+    private int[] sizes = new int[1];
+    private long count = 0;
+    private float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+    private long random = 0x9E3779B97F4A7C15L; // xorshift state for the odd/even picks
+
+    QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    QuantileSketch(int k) {
+        if (k < 8) throw new IllegalArgumentException("k must be at least 8");
+        this.k = k;
+    }
+
+    long count() {
+        return count;
+    }
+
+    float min() {
+        return min;
+    }
+
+    float max() {
+        return max;
+    }
+
+    void add(float value) {
+        if (Float.isNaN(value)) return;
+        append(0, value);
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (sizes[0] >= capacity(0)) compress();
+    }
+
+    void clear() {
+        levels = new float[][] {new float[8]};
+        sizes = new int[1];
+        count = 0;
+        min = Float.POSITIVE_INFINITY;
+        max = Float.NEGATIVE_INFINITY;
+    }
+
+    // the other sketch is left as it was
+    void merge(QuantileSketch other) {
+        if (other.k != k) throw new IllegalArgumentException("k differs: " + k + " vs " + other.k);
+        for (int h = 0; h < other.sizes.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                append(h, other.levels[h][i]);
+            }
+        }
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        compress();
+    }
+
+    // share of the values below 'value' (or at or below it with 'inclusive'), 0 when empty
+    double rank(float value, boolean inclusive) {
+        if (count == 0) return 0;
+        long weight = 0;
+        for (int h = 0; h < sizes.length; h++) {
+            float[] level = levels[h];
+            int below = 0;
+            for (int i = 0; i < sizes[h]; i++) {
+                if (level[i] < value || inclusive && level[i] == value) below++;
+            }
+            weight += (long) below << h;
+        }
+        return (double) weight / count;
+    }
+
+    // smallest stored value with at least q of the weight at or below it
+    float quantile(double q) {
+        if (count == 0) return Float.NaN;
+        int total = 0;
+        for (int size : sizes) total += size;
+        long[] items = new long[total]; // value bits in the high word, level in the low one
+        int n = 0;
+        for (int h = 0; h < sizes.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                items[n++] = ((long) sortableBits(levels[h][i]) << 32) | h;
+            }
+        }
+        Arrays.sort(items);
+        long target = (long) Math.ceil(q * count), seen = 0;
+        for (long item : items) {
+            seen += 1L << (int) item;
+            if (seen >= target) return fromSortableBits((int) (item >>> 32));
+        }
+        return max;
+    }
+
+    private int capacity(int h) {
+        int depth = sizes.length - 1 - h;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(SHRINK, depth)));
+    }
+
+    private void append(int h, float value) {
+        // a merge can reach several levels above a shorter sketch
+        while (h >= sizes.length) {
+            int top = sizes.length;
+            levels = Arrays.copyOf(levels, top + 1);
+            levels[top] = new float[8];
+            sizes = Arrays.copyOf(sizes, top + 1);
+        }
+        if (sizes[h] == levels[h].length) {
+            levels[h] = Arrays.copyOf(levels[h], sizes[h] * 2);
+        }
+        levels[h][sizes[h]++] = value;
+    }
+
+    // compacts the lowest full level until everything fits again
+    private void compress() {
+        while (true) {
+            int h = 0;
+            while (h < sizes.length && sizes[h] < capacity(h)) h++;
+            if (h == sizes.length) return;
+            compact(h);
+        }
+    }
+
+    private void compact(int h) {
+        float[] level = levels[h];
+        int size = sizes[h];
+        Arrays.sort(level, 0, size);
+        // an odd one out stays behind (the largest, so the rest pair up)
+        int pairs = size / 2;
+        random ^= random << 13;
+        random ^= random >>> 7;
+        random ^= random << 17;
+        int offset = (int) (random & 1);
+        for (int i = 0; i < pairs; i++) {
+            append(h + 1, level[2 * i + offset]);
+        }
+        if ((size & 1) != 0) {
+            level[0] = level[size - 1];
+            sizes[h] = 1;
+        } else {
+            sizes[h] = 0;
+        }
+    }
+
+    void write(DataOutput out) throws IOException {
+        out.writeShort(k);
+        out.writeLong(count);
+        out.writeFloat(min);
+        out.writeFloat(max);
+        out.writeByte(sizes.length);
+        for (int h = 0; h < sizes.length; h++) {
+            out.writeShort(sizes[h]);
+            for (int i = 0; i < sizes[h]; i++) {
+                out.writeFloat(levels[h][i]);
+            }
+        }
+    }
+
+    static QuantileSketch read(DataInput in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch(in.readUnsignedShort());
+        sketch.count = in.readLong();
+        sketch.min = in.readFloat();
+        sketch.max = in.readFloat();
+        int height = in.readUnsignedByte();
+        if (sketch.count < 0 || height == 0 || height > 64) throw new IOException("Bad sketch header");
+        sketch.levels = new float[height][];
+        sketch.sizes = new int[height];
+        long weight = 0;
+        for (int h = 0; h < height; h++) {
+            int size = in.readUnsignedShort();
+            float[] level = new float[Math.max(8, size)];
+            for (int i = 0; i < size; i++) {
+                level[i] = in.readFloat();
+            }
+            sketch.levels[h] = level;
+            sketch.sizes[h] = size;
+            weight += (long) size << h;
+        }
+        if (weight != sketch.count) throw new IOException("Sketch weights don't add up");
+        return sketch;
+    }
+
+    // float order as int order, negatives included
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits < 0 ? bits ^ 0x7fffffff : bits;
+    }
+
+    private static float fromSortableBits(int bits) {
+        return Float.intBitsToFloat(bits < 0 ? bits ^ 0x7fffffff : bits);
+    }
+}
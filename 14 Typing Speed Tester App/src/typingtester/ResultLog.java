@@ -0,0 +1,159 @@
+package typingtester;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// test history on disk - fixed width records in a memory mapped file
+// opening only reads the header, fields are read straight out of the mapping
+// and an append is one record write plus the count in the header
+//
+// header (32 bytes): magic, version, record size, unused, count, unused
+// record (40 bytes): epoch millis, wpm, time seconds, accuracy, level, difficulty ordinal, unused,
+//                    key interval p50/p90/p99 in ms as unsigned shorts (0 = not recorded)
+class ResultLog implements Closeable {
+    private static final int MAGIC = 0x5453544C; // "TSTL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int COUNT_OFFSET = 16;
+    static final int RECORD_SIZE = 40;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int FORCE_EVERY = 16; // appends between force() calls
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int count;
+    private int unforced = 0;
+
+    private ResultLog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long existing = channel.size();
+        if (existing >= HEADER_SIZE) {
+            capacity = (int) Math.max(INITIAL_CAPACITY, (existing - HEADER_SIZE) / RECORD_SIZE);
+            map();
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != RECORD_SIZE) {
+                throw new IOException("Not a typing results log");
+            }
+            count = (int) buffer.getLong(COUNT_OFFSET);
+        } else {
+            capacity = INITIAL_CAPACITY;
+            map();
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, RECORD_SIZE);
+            buffer.putLong(COUNT_OFFSET, 0);
+            buffer.force();
+        }
+    }
+
+    static ResultLog open(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new ResultLog(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // ~/.typingtester/results.log unless -Dtypingtester.data=<dir> says otherwise
+    static Path defaultFile() {
+        String dir = System.getProperty("typingtester.data",
+            System.getProperty("user.home") + File.separator + ".typingtester");
+        return Paths.get(dir, "results.log");
+    }
+
+    private void map() throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    long epochMillis(int index) { return buffer.getLong(offset(index)); }
+    double wpm(int index) { return buffer.getDouble(offset(index) + 8); }
+    double timeSeconds(int index) { return buffer.getDouble(offset(index) + 16); }
+    int accuracy(int index) { return buffer.getInt(offset(index) + 24); }
+    int level(int index) { return buffer.getInt(offset(index) + 28); }
+    byte difficulty(int index) { return buffer.get(offset(index) + 32); }
+    char keyP50(int index) { return buffer.getChar(offset(index) + 34); }
+    char keyP90(int index) { return buffer.getChar(offset(index) + 36); }
+    char keyP99(int index) { return buffer.getChar(offset(index) + 38); }
+
+    int size() {
+        return count;
+    }
+
+    void append(long epochMillis, double wpm, double timeSeconds, int accuracy, int level, byte difficulty,
+                char keyP50, char keyP90, char keyP99) {
+        write(epochMillis, wpm, timeSeconds, accuracy, level, difficulty, keyP50, keyP90, keyP99);
+        if (++unforced >= FORCE_EVERY) {
+            flush();
+        }
+    }
+
+    // for imports - no force() per row, call flush() once the import is done
+    void appendBulk(long epochMillis, double wpm, double timeSeconds, int accuracy, int level, byte difficulty,
+                    char keyP50, char keyP90, char keyP99) {
+        write(epochMillis, wpm, timeSeconds, accuracy, level, difficulty, keyP50, keyP90, keyP99);
+        unforced++;
+    }
+
+    private void write(long epochMillis, double wpm, double timeSeconds, int accuracy, int level, byte difficulty,
+                       char keyP50, char keyP90, char keyP99) {
+        try {
+            if (count == capacity) {
+                buffer.force();
+                capacity *= 2;
+                map();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not grow results log", e);
+        }
+        int at = offset(count);
+        buffer.putLong(at, epochMillis);
+        buffer.putDouble(at + 8, wpm);
+        buffer.putDouble(at + 16, timeSeconds);
+        buffer.putInt(at + 24, accuracy);
+        buffer.putInt(at + 28, level);
+        buffer.put(at + 32, difficulty);
+        buffer.putChar(at + 34, keyP50);
+        buffer.putChar(at + 36, keyP90);
+        buffer.putChar(at + 38, keyP99);
+        // count goes in last so a half written record is never visible
+        count++;
+        buffer.putLong(COUNT_OFFSET, count);
+    }
+
+    // drops every record, the file keeps its size for the next appends
+    void clear() {
+        count = 0;
+        buffer.putLong(COUNT_OFFSET, 0);
+        flush();
+    }
+
+    void flush() {
+        buffer.force();
+        unforced = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
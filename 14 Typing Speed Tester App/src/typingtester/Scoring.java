@@ -0,0 +1,60 @@
+package typingtester;
+
+// all the scoring rules in one place so the GUI, the console mode and
+// anything headless give the same numbers
+final class Scoring {
+    static final int BASE_XP_PER_LEVEL = 1000;
+    static final int STREAK_ACCURACY = 95; // accuracy needed to keep the streak going
+
+    private Scoring() { }
+
+    // the old positional compare, extra/missing chars count against you.
+    // only ScoringBenchmark's baseline uses it, the app scores with DiffEngine.fillAlignment
+    static int accuracy(CharSequence original, CharSequence typed) {
+        if (typed.length() == 0) return 100;
+        
+        int matches = 0;
+        int minLength = Math.min(original.length(), typed.length());
+        
+        for (int i = 0; i < minLength; i++) {
+            if (original.charAt(i) == typed.charAt(i)) {
+                matches++;
+            }
+        }
+        
+        // penalty for extra characters
+        int penalty = Math.abs(original.length() - typed.length());
+        int totalCorrect = matches - penalty;
+        
+        return Math.max(0, (int) ((totalCorrect * 100.0) / original.length()));
+    }
+
+    static String skillLevel(double wpm, int accuracy) {
+        if (accuracy < 70) return "Practice Accuracy";
+        if (wpm < 20) return "Beginner";
+        if (wpm < 30) return "Novice";
+        if (wpm < 40) return "Intermediate";
+        if (wpm < 50) return "Good";
+        if (wpm < 60) return "Advanced";
+        if (wpm < 70) return "Expert";
+        if (wpm < 80) return "Master";
+        if (wpm < 100) return "Lightning";
+        return "Typing God";
+    }
+
+    // xp trickling in on every stats tick while typing
+    static double tickXp(double wpm, int accuracy) {
+        if (wpm <= 0) return 0;
+        double xpGain = wpm * 0.1 + (accuracy - 90) * 0.2;
+        return xpGain > 0 ? xpGain : 0;
+    }
+
+    // xp reward for finishing a test
+    static double completionXp(double wpm, int accuracy) {
+        return wpm * 0.5 + accuracy * 0.3 + (accuracy >= 100 ? 50 : 0);
+    }
+
+    static int levelForXp(double totalXP) {
+        return (int) (totalXP / BASE_XP_PER_LEVEL) + 1;
+    }
+}
@@ -0,0 +1,288 @@
+package typingtester;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+// everything a TypingSession was told, in order, so a test can be played back
+// into a fresh session and scored again - after a scoring change, at the
+// original pace to watch a reported stutter happen, or flat out as benchmark input
+//
+// the session writes into it as it goes (TypingSession.setRecording), start()
+// begins a new recording, the app saves it once the test completes
+//
+// file: magic "TSKR", version byte, then events to the end of the file
+// event: kind byte, the timed kinds then have the nanos since the previous
+// timed event as a varint (the first one is the raw nanoTime), then
+//   START     time limit nanos, prompt
+//   LIMIT     time limit nanos           (setTimeLimit after start)
+//   TARGET    prompt                     (setTarget)
+//   APPEND    text                       (appendTarget)
+//   RETIRE    keep behind                (retireTyped - the cut is the same on replay)
+//   INSERT    offset, text               timed
+//   REMOVE    offset, length             timed
+//   PAUSE / RESUME / COMPLETE            timed, nothing else
+// text is a varint length and a varint per char, so a typed ascii char is
+// about 4 bytes with its timestamp
+class SessionRecording {
+    static final double MAX_SPEED = 0; // replay without waiting
+
+    private static final int MAGIC = 0x524b5354; // "TSKR", written low byte first
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+    private static final int START = 0, LIMIT = 1, TARGET = 2, APPEND = 3, RETIRE = 4,
+            INSERT = 5, REMOVE = 6, PAUSE = 7, RESUME = 8, COMPLETE = 9;
+
+    private byte[] data = new byte[4096];
+    private int size = 0;
+    private long lastNanos = 0;
+
+    static Path defaultDirectory() {
+        String dir = System.getProperty("typingtester.recordings");
+        if (dir != null) return Paths.get(dir);
+        return Paths.get(System.getProperty("user.home"), ".typingtester", "recordings");
+    }
+
+    // ---- writing, called by the session
+
+    void started(long limitNanos, CharSequence target) {
+        size = 0;
+        lastNanos = 0;
+        putInt(MAGIC);
+        put(VERSION);
+        put(START);
+        putVarint(limitNanos);
+        putText(target);
+    }
+
+    void limitChanged(long limitNanos) {
+        if (size == 0) return;
+        put(LIMIT);
+        putVarint(limitNanos);
+    }
+
+    void targetChanged(CharSequence target) {
+        if (size == 0) return;
+        put(TARGET);
+        putText(target);
+    }
+
+    void appended(CharSequence text) {
+        if (size == 0) return;
+        put(APPEND);
+        putText(text);
+    }
+
+    void retired(int keepBehind) {
+        if (size == 0) return;
+        put(RETIRE);
+        putVarint(keepBehind);
+    }
+
+    void inserted(long nanos, int offset, CharSequence text) {
+        if (size == 0) return;
+        putTimed(INSERT, nanos);
+        putVarint(offset);
+        putText(text);
+    }
+
+    void removed(long nanos, int offset, int length) {
+        if (size == 0) return;
+        putTimed(REMOVE, nanos);
+        putVarint(offset);
+        putVarint(length);
+    }
+
+    void paused(long nanos) {
+        if (size > 0) putTimed(PAUSE, nanos);
+    }
+
+    void resumed(long nanos) {
+        if (size > 0) putTimed(RESUME, nanos);
+    }
+
+    void completed(long nanos) {
+        if (size > 0) putTimed(COMPLETE, nanos);
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    private void putTimed(int kind, long nanos) {
+        put(kind);
+        // nanoTime never goes backwards, but don't write a 10 byte varint if it does
+        putVarint(Math.max(0, nanos - lastNanos));
+        lastNanos = nanos;
+    }
+
+    private void putText(CharSequence text) {
+        putVarint(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            putVarint(text.charAt(i));
+        }
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7fL) != 0) {
+            put((int) (value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        put((int) value);
+    }
+
+    private void putInt(int value) {
+        for (int i = 0; i < 4; i++) {
+            put(value >>> (8 * i));
+        }
+    }
+
+    private void put(int b) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, size * 2);
+        }
+        data[size++] = (byte) b;
+    }
+
+    // ---- replay
+
+    // plays a recording into a new session and returns the stats it ends with
+    // speed 1 keeps the original pace, 4 runs four times as fast, MAX_SPEED
+    // doesn't wait at all - the session is handed the recorded timestamps in
+    // every case, so the numbers don't depend on the speed
+    static SessionStats replay(byte[] recording, double speed) throws IOException {
+        Reader in = new Reader(recording);
+        if (recording.length < HEADER_SIZE || in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not a keystroke recording");
+        }
+        StringBuilder text = new StringBuilder();
+        TypingSession session = null;
+        long nanos = 0, firstNanos = -1, wallStart = System.nanoTime();
+        try {
+            while (in.pos < recording.length) {
+                int kind = in.readByte();
+                if (kind >= INSERT) {
+                    nanos += in.readVarint();
+                    if (firstNanos < 0) firstNanos = nanos;
+                    if (speed > 0) {
+                        waitUntil(wallStart + (long) ((nanos - firstNanos) / speed));
+                    }
+                }
+                if (kind != START && session == null) throw new IOException("Recording doesn't begin with a start");
+                switch (kind) {
+                    case START:
+                        long limit = in.readVarint();
+                        session = new TypingSession(in.readText(text).toString());
+                        session.setTimeLimit(limit / 1e9);
+                        session.start();
+                        break;
+                    case LIMIT: session.setTimeLimit(in.readVarint() / 1e9); break;
+                    case TARGET: session.setTarget(in.readText(text).toString()); break;
+                    case APPEND: session.appendTarget(in.readText(text)); break;
+                    case RETIRE: session.retireTyped((int) in.readVarint()); break;
+                    case INSERT: {
+                        int offset = (int) in.readVarint();
+                        session.insert(nanos, offset, in.readText(text));
+                        break;
+                    }
+                    case REMOVE: {
+                        int offset = (int) in.readVarint();
+                        session.remove(nanos, offset, (int) in.readVarint());
+                        break;
+                    }
+                    case PAUSE: session.pause(nanos); break;
+                    case RESUME: session.resume(nanos); break;
+                    case COMPLETE: return session.complete(nanos);
+                    default: throw new IOException("Unknown event " + kind + " at byte " + (in.pos - 1));
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Bad event before byte " + in.pos, e);
+        }
+        if (session == null) throw new IOException("Empty recording");
+        // never completed (closed or reset mid test), stats as of the last event
+        return session.snapshot(nanos, new SessionStats());
+    }
+
+    private static void waitUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        int pos = 0;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= data.length) throw new IOException("Recording cut short");
+            return data[pos++] & 0xff;
+        }
+
+        int readInt() throws IOException {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value |= readByte() << (8 * i);
+            }
+            return value;
+        }
+
+        long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Bad varint before byte " + pos);
+        }
+
+        StringBuilder readText(StringBuilder into) throws IOException {
+            int length = (int) readVarint();
+            if (length < 0 || length > data.length - pos) throw new IOException("Bad text length before byte " + pos);
+            into.setLength(0);
+            for (int i = 0; i < length; i++) {
+                into.append((char) readVarint());
+            }
+            return into;
+        }
+    }
+
+    // re-scores recordings with the current formulas:
+    //   SessionRecording [--speed <n> | --max] <file.tskr>...
+    public static void main(String[] args) throws IOException {
+        double speed = MAX_SPEED;
+        int first = 0;
+        if (args.length > 1 && args[0].equals("--speed")) {
+            speed = Double.parseDouble(args[1]);
+            first = 2;
+        } else if (args.length > 0 && args[0].equals("--max")) {
+            first = 1;
+        }
+        if (first >= args.length) {
+            System.err.println("usage: SessionRecording [--speed <n> | --max] <file.tskr>...");
+            System.exit(2);
+        }
+        for (int i = first; i < args.length; i++) {
+            byte[] recording = Files.readAllBytes(Paths.get(args[i]));
+            long start = System.nanoTime();
+            SessionStats stats = replay(recording, speed);
+            System.out.printf("%s: %.1f WPM (net %.1f), %d%% accuracy, %d mistakes, %.1f s, %s, +%.0f XP"
+                    + " - replayed in %.1f ms%n",
+                args[i], stats.wpm, stats.netWpm, stats.accuracy, stats.mistakes, stats.seconds, stats.skillLevel,
+                Scoring.completionXp(stats.wpm, stats.accuracy), (System.nanoTime() - start) / 1e6);
+        }
+    }
+}
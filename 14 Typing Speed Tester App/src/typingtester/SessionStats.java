@@ -0,0 +1,19 @@
+package typingtester;
+
+// numbers for one moment of a typing session
+// mutable on purpose - the stats tick refills the same instance every time
+class SessionStats {
+    double seconds;
+    double wpm;
+    double netWpm;
+    double cpm;
+    double keystrokesPerChar;
+    int accuracy = 100;
+    int mistakes;
+    int typedChars;
+    String skillLevel = "Ready";
+    // how the typed text lines up with the prompt, see BandedAligner
+    int correctChars, substitutedChars, insertedChars, omittedChars;
+    // time between keystrokes in ms, only filled in by complete()
+    double keyP50Ms, keyP90Ms, keyP99Ms, keyMaxMs;
+}
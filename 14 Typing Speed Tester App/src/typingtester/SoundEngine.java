@@ -0,0 +1,120 @@
+package typingtester;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+// sound effects without blocking the EDT
+// every clip is synthesized once up front, play() only drops it in a small
+// queue and a low priority thread writes it to the audio line
+// a sound that is already waiting isn't queued twice, a full queue drops it
+// no audio device (headless boxes, CI) -> everything is silently ignored
+class SoundEngine {
+    enum Sound { START, TYPE, ERROR, COMPLETE, LEVEL_UP, COUNTDOWN }
+
+    private static final float SAMPLE_RATE = 22050f;
+    private static final int QUEUE_SIZE = 4;
+
+    private final short[][] clips = new short[Sound.values().length][];
+    private final BlockingQueue<Sound> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final AtomicIntegerArray pending = new AtomicIntegerArray(Sound.values().length);
+    private volatile float volume = 0.7f;
+    private volatile boolean available = true;
+
+    SoundEngine() {
+        clips[Sound.START.ordinal()] = tones(120, 0, 660);
+        clips[Sound.TYPE.ordinal()] = tones(15, 0, 1200);
+        clips[Sound.ERROR.ordinal()] = tones(60, 0, 220);               // low pitch
+        clips[Sound.COMPLETE.ordinal()] = tones(100, 100, 880, 880);    // double beep
+        clips[Sound.LEVEL_UP.ordinal()] = tones(100, 50, 523, 659, 784); // 3 beeps, 150 ms apart
+        clips[Sound.COUNTDOWN.ordinal()] = tones(80, 0, 1000);
+
+        Thread player = new Thread(this::run, "sound-engine");
+        player.setDaemon(true);
+        player.setPriority(Thread.MIN_PRIORITY);
+        player.start();
+    }
+
+    // never blocks
+    void play(Sound sound) {
+        if (!available) return;
+        if (!pending.compareAndSet(sound.ordinal(), 0, 1)) return; // already waiting
+        if (!queue.offer(sound)) {
+            pending.set(sound.ordinal(), 0);
+        }
+    }
+
+    // 0..1
+    void setVolume(float volume) {
+        this.volume = Math.max(0f, Math.min(1f, volume));
+    }
+
+    private void run() {
+        SourceDataLine line = openLine();
+        if (line == null) {
+            available = false;
+            queue.clear();
+            return;
+        }
+        byte[] scratch = new byte[longestClip() * 2];
+        try {
+            while (true) {
+                Sound sound = queue.take();
+                pending.set(sound.ordinal(), 0);
+                short[] clip = clips[sound.ordinal()];
+                float gain = volume;
+                for (int i = 0; i < clip.length; i++) {
+                    int sample = (int) (clip[i] * gain);
+                    scratch[2 * i] = (byte) sample;
+                    scratch[2 * i + 1] = (byte) (sample >> 8);
+                }
+                line.write(scratch, 0, clip.length * 2);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            line.close();
+        }
+    }
+
+    private static SourceDataLine openLine() {
+        try {
+            AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+            SourceDataLine line = AudioSystem.getSourceDataLine(format);
+            line.open(format, (int) SAMPLE_RATE / 2); // half a second of buffer
+            line.start();
+            return line;
+        } catch (Exception | LinkageError e) {
+            return null;
+        }
+    }
+
+    private int longestClip() {
+        int longest = 0;
+        for (short[] clip : clips) {
+            longest = Math.max(longest, clip.length);
+        }
+        return longest;
+    }
+
+    // beeps of toneMs each with gapMs of silence between them
+    private static short[] tones(int toneMs, int gapMs, int... frequencies) {
+        int toneSamples = (int) (SAMPLE_RATE * toneMs / 1000);
+        int gapSamples = (int) (SAMPLE_RATE * gapMs / 1000);
+        int fade = Math.min(toneSamples / 4, (int) (SAMPLE_RATE / 200)); // 5 ms, no clicks
+        short[] clip = new short[frequencies.length * toneSamples + (frequencies.length - 1) * gapSamples];
+        int at = 0;
+        for (int frequency : frequencies) {
+            for (int i = 0; i < toneSamples; i++) {
+                double envelope = Math.min(1.0, Math.min(i, toneSamples - 1 - i) / (double) Math.max(1, fade));
+                clip[at + i] = (short) (Math.sin(2 * Math.PI * frequency * i / SAMPLE_RATE) * envelope * 0.6 * Short.MAX_VALUE);
+            }
+            at += toneSamples + gapSamples;
+        }
+        return clip;
+    }
+}
@@ -0,0 +1,42 @@
+package typingtester;
+
+// live speed numbers straight from the DiffEngine counters
+// no split("\\s+") and nothing allocated per tick
+class SpeedMeter {
+    private static final double CHARS_PER_WORD = 5.0; // standard word
+
+    private final DiffEngine diff;
+
+    SpeedMeter(DiffEngine diff) {
+        this.diff = diff;
+    }
+
+    // words typed per minute - what the WPM label has always shown
+    double wpm(double seconds) {
+        if (seconds <= 0) return 0;
+        return diff.getWordCount() / seconds * 60;
+    }
+
+    // every 5 typed chars = 1 word
+    double grossWpm(double seconds) {
+        if (seconds <= 0) return 0;
+        return diff.totalLength() / CHARS_PER_WORD / seconds * 60;
+    }
+
+    // gross minus uncorrected mistakes per minute
+    double netWpm(double seconds) {
+        if (seconds <= 0) return 0;
+        return Math.max(0, grossWpm(seconds) - diff.getMistakes() / seconds * 60);
+    }
+
+    double cpm(double seconds) {
+        if (seconds <= 0) return 0;
+        return diff.totalLength() / seconds * 60;
+    }
+
+    // 1.0 = no corrections at all
+    double keystrokesPerChar() {
+        int chars = diff.totalLength();
+        return chars == 0 ? 0 : (double) diff.getKeystrokes() / chars;
+    }
+}
@@ -0,0 +1,230 @@
+package typingtester;
+
+// one typing test, no Swing in here
+// feed it the edits with System.nanoTime() stamps and ask for stats whenever
+// the clock starts on the first keystroke, same as the GUI always did
+//
+// with a time limit it's a timed test: the target is a window the caller keeps
+// topping up (appendTarget) and trimming (retireTyped), it never completes by
+// itself and the clock stops at the limit
+//
+// with a SessionRecording attached every call that changes the session is
+// written to it, so the test can be replayed headlessly later
+class TypingSession {
+    enum State { READY, RUNNING, PAUSED, COMPLETED }
+
+    static final int TIMELINE_CAPACITY = 8192; // keystrokes kept for the latency numbers
+
+    private final DiffEngine diff;
+    private final SpeedMeter meter;
+    private final KeystrokeTimeline timeline = new KeystrokeTimeline(TIMELINE_CAPACITY);
+    private State state = State.READY;
+    private long startNanos, pausedNanos, pauseStartedAt, endNanos;
+    private long limitNanos = 0; // 0 = type the whole passage
+    private SessionRecording recording; // null = not recording
+
+    TypingSession(String target) {
+        diff = new DiffEngine(target);
+        meter = new SpeedMeter(diff);
+    }
+
+    // new prompt, whatever is typed stays and gets re-checked
+    void setTarget(String target) {
+        diff.setTarget(target);
+        if (recording != null) recording.targetChanged(target);
+    }
+
+    // from the next start() on, null to stop recording
+    void setRecording(SessionRecording recording) {
+        this.recording = recording;
+    }
+
+    SessionRecording getRecording() {
+        return recording;
+    }
+
+    // seconds per test, 0 = type the whole passage
+    void setTimeLimit(double seconds) {
+        limitNanos = (long) (seconds * 1e9);
+        if (recording != null) recording.limitChanged(limitNanos);
+    }
+
+    boolean isTimed() {
+        return limitNanos > 0;
+    }
+
+    double getTimeLimit() {
+        return limitNanos / 1e9;
+    }
+
+    // back to READY, call after the typed text got cleared
+    void start() {
+        state = State.READY;
+        pausedNanos = 0;
+        diff.resetKeystrokes();
+        diff.resetRetired();
+        timeline.clear();
+        if (recording != null) recording.started(limitNanos, diff.getTarget());
+    }
+
+    void appendTarget(CharSequence more) {
+        diff.appendTarget(more);
+        if (recording != null) recording.appended(more);
+    }
+
+    // drops typed text from the front of the window, keeping at least 'keepBehind'
+    // typed chars; cuts after whitespace so no word is split, returns how many
+    // chars went (the caller removes the same amount from both text areas)
+    int retireTyped(int keepBehind) {
+        int cut = Math.min(diff.length() - keepBehind, diff.getTarget().length());
+        while (cut > 0 && !Character.isWhitespace(diff.charAt(cut - 1))) {
+            cut--;
+        }
+        if (cut <= 0) return 0;
+        if (recording != null) recording.retired(keepBehind);
+        diff.retire(cut);
+        return cut;
+    }
+
+    // prompt chars past what's been typed
+    int untypedLength() {
+        return Math.max(0, diff.getTarget().length() - diff.length());
+    }
+
+    void insert(long nanos, int offset, CharSequence text) {
+        if (recording != null) recording.inserted(nanos, offset, text);
+        diff.insert(offset, text);
+        String target = diff.getTarget();
+        int base = diff.retiredLength();
+        for (int i = 0; i < text.length(); i++) {
+            int at = offset + i;
+            timeline.recordInsert(nanos, base + at, text.charAt(i), at < target.length() && !diff.isMismatch(at));
+        }
+        begin(nanos);
+    }
+
+    void remove(long nanos, int offset, int length) {
+        if (recording != null) recording.removed(nanos, offset, length);
+        diff.remove(offset, length);
+        timeline.recordDelete(nanos, diff.retiredLength() + offset);
+        begin(nanos);
+    }
+
+    private void begin(long nanos) {
+        if (state == State.READY && diff.length() > 0) {
+            state = State.RUNNING;
+            startNanos = nanos;
+            pausedNanos = 0;
+        }
+    }
+
+    void pause(long nanos) {
+        if (state != State.RUNNING) return;
+        state = State.PAUSED;
+        pauseStartedAt = nanos;
+        if (recording != null) recording.paused(nanos);
+        timeline.markGap();
+    }
+
+    void resume(long nanos) {
+        if (state != State.PAUSED) return;
+        state = State.RUNNING;
+        pausedNanos += nanos - pauseStartedAt;
+        if (recording != null) recording.resumed(nanos);
+    }
+
+    // stops the clock, stats after this stay frozen at 'nanos' (or the time limit)
+    SessionStats complete(long nanos) {
+        if (recording != null) recording.completed(nanos);
+        if (state == State.PAUSED) resume(nanos);
+        endNanos = isTimed() ? Math.min(nanos, startNanos + pausedNanos + limitNanos) : nanos;
+        state = State.COMPLETED;
+        SessionStats stats = snapshot(nanos, new SessionStats());
+        timeline.summarize(stats);
+        return stats;
+    }
+
+    // active typing time, pauses left out, never past the time limit
+    double elapsedSeconds(long nanos) {
+        return Math.min(activeNanos(nanos), isTimed() ? limitNanos : Long.MAX_VALUE) / 1e9;
+    }
+
+    private long activeNanos(long nanos) {
+        switch (state) {
+            case RUNNING: return nanos - startNanos - pausedNanos;
+            case PAUSED: return pauseStartedAt - startNanos - pausedNanos;
+            case COMPLETED: return endNanos - startNanos - pausedNanos;
+            default: return 0;
+        }
+    }
+
+    // timed tests only, the full limit until the first keystroke
+    double remainingSeconds(long nanos) {
+        return Math.max(0, limitNanos - activeNanos(nanos)) / 1e9;
+    }
+
+    boolean isTimeUp(long nanos) {
+        return isTimed() && state == State.RUNNING && activeNanos(nanos) >= limitNanos;
+    }
+
+    SessionStats snapshot(long nanos, SessionStats into) {
+        double seconds = elapsedSeconds(nanos);
+        into.seconds = seconds;
+        into.wpm = meter.wpm(seconds);
+        into.netWpm = meter.netWpm(seconds);
+        into.cpm = meter.cpm(seconds);
+        into.keystrokesPerChar = meter.keystrokesPerChar();
+        into.accuracy = diff.fillAlignment(into);
+        into.mistakes = diff.getMistakes();
+        into.typedChars = diff.totalLength();
+        into.skillLevel = Scoring.skillLevel(into.wpm, into.accuracy);
+        return into;
+    }
+
+    // a timed test is only over when the clock says so
+    boolean isComplete() {
+        return !isTimed() && diff.isComplete();
+    }
+
+    boolean isStarted() {
+        return state == State.RUNNING || state == State.PAUSED;
+    }
+
+    boolean isPaused() {
+        return state == State.PAUSED;
+    }
+
+    KeystrokeTimeline getTimeline() {
+        return timeline;
+    }
+
+    State getState() {
+        return state;
+    }
+
+    int typedLength() {
+        return diff.length();
+    }
+
+    // typed char at a window position
+    char typedChar(int i) {
+        return diff.charAt(i);
+    }
+
+    // window position, false past the typed text
+    boolean isMismatch(int i) {
+        return diff.isMismatch(i);
+    }
+
+    int getKeystrokes() {
+        return diff.getKeystrokes();
+    }
+
+    int getMistakes() {
+        return diff.getMistakes();
+    }
+
+    String getTarget() {
+        return diff.getTarget();
+    }
+}
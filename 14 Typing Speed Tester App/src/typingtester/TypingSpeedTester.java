@@ -0,0 +1,1524 @@
+package typingtester;
+
+import javax.swing.*;
+import javax.swing.border.*;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.text.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// entry 
+public class TypingSpeedTester extends JFrame {
+    // gUI Components
+    private JTabbedPane mainTabs;
+    private JPanel typingPanel, statsPanel, settingsPanel, leaderboardPanel;
+    private JTextArea promptArea, inputArea;
+    private MistakePainter mistakePainter;
+    private JLabel timerLabel, wpmLabel, accuracyLabel, streakLabel, levelLabel;
+    private JProgressBar accuracyBar, progressBar, levelProgressBar;
+    private JButton startButton, pauseButton, resetButton, hintButton;
+    private JComboBox<String> difficultyCombo, modeCombo, themeCombo, fontSizeCombo;
+    private JCheckBox soundCheckbox, realTimeCheckbox, mistakeHighlightCheckbox;
+    private JSlider volumeSlider;
+    private JTable historyTable, leaderboardTable;
+    private DefaultTableModel leaderModel;
+    private TitledBorder leaderBorder;
+    private HistoryTableModel historyModel;
+    private JButton exportButton, importButton, clearHistoryButton, cancelTransferButton;
+    private JProgressBar transferBar;
+    private volatile boolean transferCancelled = false;
+    private JLabel mistakeCountLabel, bestWpmLabel, totalTestsLabel;
+    private JLabel avgWpmLabel, avgAccuracyLabel, totalTimeLabel, improvementLabel; // null until the Stats tab is built
+    private JLabel summaryBestWpmLabel; // the Stats tab's copy, bestWpmLabel stays in the header
+    private LiveStatsView liveView; // everything the stats tick writes goes through here
+    private JLabel latencyLabel;
+    private JCheckBox latencyCheckbox;
+    private LatencyProbe latencyProbe;
+    private javax.swing.Timer latencyOverlayTimer;
+    
+    // game state
+    private String currentText;
+    private TypingSession session;
+    private final PlayerProgress progress = new PlayerProgress();
+    private final SessionStats liveStats = new SessionStats();
+    private final Segment insertedText = new Segment();
+    private javax.swing.Timer uiTimer, countdownTimer;
+    private Random random;
+    private HistoryStore testHistory;
+    private HistorySketches sketches; // percentiles of the history, kept in step with testHistory
+    private HistoryAnalytics analytics; // summary and rollups, caught up off the EDT after every change
+    private PassageCorpus corpus;
+    private PassageGenerator generator; // loaded the first time it's asked for
+    private JCheckBox generateCheckbox;
+    private JCheckBox recordCheckbox;
+    private int currentDifficulty = 1;
+    private int mistakeCount = 0;
+    private Map<String, Color> themes;
+    private String currentTheme = "Dark";
+    private boolean soundEnabled = true;
+    // the Settings checkboxes write these, the tab may never have been built
+    private boolean highlightMistakes = true;
+    private boolean generatePassages = false;
+    private boolean recordSessions = Boolean.getBoolean("typingtester.record"); // -Dtypingtester.record=true starts with recording on
+    private final SoundEngine sounds = new SoundEngine();
+    private final AppMetrics metrics = AppMetrics.register();
+    private LeaderboardServer leaderboardServer; // when this app hosts the room's leaderboard
+    private LeaderboardClient leaderboard;       // null = no leaderboard configured
+    private javax.swing.Timer leaderboardTimer;
+    private boolean leaderboardPolling = false;  // a /top request is in flight
+    private Font typingFont;
+    
+    private static final int TIMER_UPDATE_DELAY = 100; // milliseconds
+    private static final int LATENCY_OVERLAY_DELAY = 500; // milliseconds
+    private static final int LEADERBOARD_POLL_DELAY = 2000; // milliseconds
+    // mainTabs order, everything but the typing tab is built on first selection
+    private static final int STATS_TAB = 1, SETTINGS_TAB = 2, LEADERBOARD_TAB = 3;
+    private int countdownSeconds = 60; // last whole second the countdown announced
+    
+    // timed modes, index = modeCombo index, 0 = type the whole passage
+    private static final String[] MODES = {"Full Passage", "15 s", "30 s", "60 s", "120 s"};
+    private static final int[] MODE_SECONDS = {0, 15, 30, 60, 120};
+    // timed prompt window, in chars
+    private static final int PROMPT_LOOKAHEAD = 400;   // untyped text kept ready
+    private static final int PROMPT_KEEP_BEHIND = 40;  // typed text still shown
+    private static final int PROMPT_RETIRE_STEP = 120; // typed text dropped at a time
+    private boolean trimmingInput = false; // our own removes, not the user's
+    
+    public TypingSpeedTester() {
+        random = new Random();
+        testHistory = openHistory();
+        sketches = openSketches();
+        analytics = new HistoryAnalytics(snapshot -> SwingUtilities.invokeLater(() -> showAnalytics(snapshot)));
+        analytics.catchUp(testHistory.view());
+        corpus = openCorpus();
+        metrics.historySize(testHistory::size);
+        metrics.timeEdtDispatch();
+        initializeThemes();
+        initializeGUI();
+        loadNewText();
+        applyTheme();
+        openLeaderboard();
+    }
+    
+    // results survive restarts in the mapped log, memory only if the file can't be opened
+    private HistoryStore openHistory() {
+        try {
+            HistoryStore store = new HistoryStore(ResultLog.open(ResultLog.defaultFile()));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+            return store;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new HistoryStore();
+        }
+    }
+    
+    // -Dtypingtester.leaderboardPort=<port> hosts the room's leaderboard in this app,
+    // -Dtypingtester.leaderboard=<url> joins one running somewhere else
+    private void openLeaderboard() {
+        String url = LeaderboardClient.defaultUrl();
+        Integer port = Integer.getInteger("typingtester.leaderboardPort");
+        if (port != null) {
+            try {
+                leaderboardServer = LeaderboardServer.start(new InetSocketAddress(port), new LeaderboardIndex());
+                if (url == null) url = "http://localhost:" + leaderboardServer.port();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        if (url == null) return;
+        leaderboard = new LeaderboardClient(url);
+        leaderboardTimer = new javax.swing.Timer(LEADERBOARD_POLL_DELAY, e -> pollLeaderboard());
+        leaderboardTimer.start();
+    }
+    
+    // only while the tab is showing and one request at a time, the answer
+    // comes back on an HttpClient thread and is handed to the EDT
+    private void pollLeaderboard() {
+        if (leaderboard == null || leaderboardPolling || leaderboardPanel == null || !leaderboardPanel.isShowing()) return;
+        leaderboardPolling = true;
+        String difficulty = (String) difficultyCombo.getSelectedItem();
+        leaderboard.top(difficulty, LeaderboardServer.DEFAULT_TOP).whenComplete((rows, error) ->
+            SwingUtilities.invokeLater(() -> {
+                leaderboardPolling = false;
+                if (error != null) {
+                    setLeaderboardTitle("🏆 Room Leaderboard - offline");
+                    return;
+                }
+                showLeaderboard(difficulty, rows);
+            }));
+    }
+    
+    private void showLeaderboard(String difficulty, List<String[]> rows) {
+        setLeaderboardTitle("🏆 Room Leaderboard - " + difficulty);
+        leaderModel.setRowCount(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            // rank, player, wpm, accuracy, epochMillis
+            String[] row = rows.get(i);
+            leaderModel.setValueAt(row[0], i, 0);
+            leaderModel.setValueAt(row[1], i, 1);
+            leaderModel.setValueAt(row[2], i, 2);
+            leaderModel.setValueAt(row[3] + "%", i, 3);
+            leaderModel.setValueAt(difficulty, i, 4);
+            leaderModel.setValueAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(row[4])),
+                ZoneId.systemDefault()).format(HistoryStore.DATE_FORMAT), i, 5);
+        }
+    }
+    
+    private void setLeaderboardTitle(String title) {
+        if (!title.equals(leaderBorder.getTitle())) {
+            leaderBorder.setTitle(title);
+            leaderboardPanel.repaint();
+        }
+    }
+    
+    // fire and forget, the next poll shows where it landed
+    private void submitToLeaderboard(String difficulty, double wpm, int accuracy) {
+        if (leaderboard == null) return;
+        String player = System.getProperty("typingtester.player", System.getProperty("user.name"));
+        leaderboard.submit(player, difficulty, wpm, accuracy).exceptionally(error -> {
+            // the real failure comes wrapped in a CompletionException
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            cause.printStackTrace();
+            return null;
+        });
+    }
+    
+    // saved on the way out, a stale or missing file gets rebuilt from the history
+    private HistorySketches openSketches() {
+        Path file = HistorySketches.defaultFile();
+        HistorySketches opened = HistorySketches.open(file, testHistory);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                opened.save(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+        return opened;
+    }
+    
+    // a corpus file if there is one, the built in passages otherwise
+    private PassageCorpus openCorpus() {
+        Path file = PassageCorpus.defaultFile();
+        if (Files.isRegularFile(file)) {
+            try {
+                return PassageCorpus.open(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return PassageCorpus.builtIn();
+    }
+    
+    private PassageGenerator generator() {
+        if (generator == null) {
+            Path file = PassageGenerator.defaultFile();
+            if (Files.isRegularFile(file)) {
+                try {
+                    generator = PassageGenerator.load(file);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            if (generator == null) {
+                generator = PassageGenerator.builtIn();
+            }
+        }
+        return generator;
+    }
+    
+    private void initializeThemes() {
+        themes = new HashMap<>();
+        themes.put("Dark", new Color(44, 62, 80));
+        themes.put("Blue", new Color(52, 152, 219));
+        themes.put("Green", new Color(46, 204, 113));
+        themes.put("Purple", new Color(155, 89, 182));
+        themes.put("Orange", new Color(230, 126, 34));
+        themes.put("Red", new Color(231, 76, 60));
+    }
+    
+    private void initializeGUI() {
+        setTitle("🚀 Advanced Typing Speed Tester Pro - Level " + progress.getCurrentLevel());
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setExtendedState(JFrame.MAXIMIZED_BOTH);
+        
+        mainTabs = new JTabbedPane();
+        mainTabs.setFont(new Font("Arial", Font.BOLD, 14));
+        
+        createTypingTab();
+        latencyProbe = new LatencyProbe(inputArea, wpmLabel, accuracyLabel, mistakeCountLabel, accuracyBar);
+        latencyOverlayTimer = new javax.swing.Timer(LATENCY_OVERLAY_DELAY, e -> updateLatencyOverlay());
+        // lives on the Stats tab but the stats tick writes it from the start
+        totalTestsLabel = new JLabel("Total Tests: 0", JLabel.CENTER);
+        totalTestsLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        liveView = new LiveStatsView(wpmLabel, accuracyLabel, mistakeCountLabel, totalTestsLabel,
+            timerLabel, accuracyBar, progressBar);
+        
+        // empty until first selected, so the first frame only waits for the
+        // typing tab's classes - tables, sliders and the rest load later
+        mainTabs.addTab("📊 Statistics", null);
+        mainTabs.addTab("⚙️ Settings", null);
+        mainTabs.addTab("🏆 Leaderboard", null);
+        mainTabs.addChangeListener(e -> buildTab(mainTabs.getSelectedIndex()));
+        
+        add(mainTabs);
+        
+
+       uiTimer = new javax.swing.Timer(TIMER_UPDATE_DELAY, e -> {
+            long tickStart = System.nanoTime();
+            updateRealTimeStats();
+            metrics.uiTick(System.nanoTime() - tickStart);
+        });
+countdownTimer = new javax.swing.Timer(1000, e -> updateCountdown());
+        
+        setupKeyboardShortcuts();
+        // -Dtypingtester.latencyProbe=true starts with the overlay on
+        setLatencyProbe(Boolean.getBoolean("typingtester.latencyProbe"));
+        pack();
+        setLocationRelativeTo(null);
+    }
+    
+    // the first selection of a tab builds it, themed like the rest
+    private void buildTab(int index) {
+        if (index < 0 || mainTabs.getComponentAt(index) != null) return;
+        switch (index) {
+            case STATS_TAB: createStatsTab(); break;
+            case SETTINGS_TAB: createSettingsTab(); break;
+            case LEADERBOARD_TAB: createLeaderboardTab(); break;
+            default: return;
+        }
+        applyTheme();
+    }
+    
+    // timed tests: beeps through the last 10 seconds and ends the test
+    // (the label itself is kept up to date by the stats tick)
+    private void updateCountdown() {
+        int remaining = (int) Math.ceil(session.remainingSeconds(System.nanoTime()));
+        if (remaining > 0) {
+            if (remaining <= 10 && remaining != countdownSeconds) {
+                timerLabel.setForeground(Color.RED);
+                playSound(SoundEngine.Sound.COUNTDOWN);
+            }
+            countdownSeconds = remaining;
+        } else {
+            countdownTimer.stop();
+            timerLabel.setForeground(Color.BLACK);
+            if (session.isStarted()) {
+                completeTest();
+            }
+        }
+    }
+    private void createTypingTab() {
+        typingPanel = new JPanel(new BorderLayout());
+
+        //thode main main panelssssssssss
+        JPanel headerPanel = createHeaderPanel();
+
+        JPanel mainPanel = createMainTypingPanel();
+
+        JPanel controlPanel = createControlPanel();
+        
+        JPanel realTimeStatsPanel = createRealTimeStatsPanel();
+        
+        typingPanel.add(headerPanel, BorderLayout.NORTH);
+        typingPanel.add(mainPanel, BorderLayout.CENTER);
+        typingPanel.add(controlPanel, BorderLayout.SOUTH);
+        typingPanel.add(realTimeStatsPanel, BorderLayout.EAST);
+        
+        mainTabs.addTab("⌨️ Typing Test", typingPanel);
+    }
+    
+    private JPanel createHeaderPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(new EmptyBorder(15, 20, 15, 20));
+        
+        JLabel titleLabel = new JLabel("🏆 TYPING SPEED MASTER", JLabel.CENTER);
+        titleLabel.setFont(new Font("Arial", Font.BOLD, 28));
+        
+        // Game stats row
+        JPanel gameStatsPanel = new JPanel(new FlowLayout());
+        levelLabel = new JLabel("Level " + progress.getCurrentLevel());
+        levelLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        
+        levelProgressBar = new JProgressBar(0, 1000);
+        levelProgressBar.setStringPainted(true);
+        levelProgressBar.setString("XP: " + (int)progress.xpInCurrentLevel() + "/" + Scoring.BASE_XP_PER_LEVEL);
+        levelProgressBar.setPreferredSize(new Dimension(200, 25));
+        
+        bestWpmLabel = new JLabel("Best: 0 WPM");
+        bestWpmLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        
+        streakLabel = new JLabel("Streak: " + progress.getCurrentStreak() + " (Best: " + progress.getBestStreak() + ")");
+        streakLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        
+        gameStatsPanel.add(levelLabel);
+        gameStatsPanel.add(levelProgressBar);
+        gameStatsPanel.add(Box.createHorizontalStrut(20));
+        gameStatsPanel.add(bestWpmLabel);
+        gameStatsPanel.add(Box.createHorizontalStrut(20));
+        gameStatsPanel.add(streakLabel);
+        
+        panel.add(titleLabel, BorderLayout.CENTER);
+        panel.add(gameStatsPanel, BorderLayout.SOUTH);
+        
+        return panel;
+    }
+    
+    private JPanel createMainTypingPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(new EmptyBorder(20, 20, 10, 20));
+        
+
+        JPanel topPanel = new JPanel(new BorderLayout());
+        
+        JPanel difficultyPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        difficultyPanel.add(new JLabel("Difficulty:"));
+        difficultyCombo = new JComboBox<>(Passages.LEVELS);
+        difficultyCombo.setSelectedIndex(1);
+        difficultyCombo.addActionListener(e -> changeDifficulty());
+        difficultyPanel.add(difficultyCombo);
+        difficultyPanel.add(new JLabel("Mode:"));
+        modeCombo = new JComboBox<>(MODES);
+        modeCombo.addActionListener(e -> resetTest());
+        difficultyPanel.add(modeCombo);
+        
+        timerLabel = new JLabel("Ready to Start!", JLabel.CENTER);
+        timerLabel.setFont(new Font("Arial", Font.BOLD, 24));
+        
+        topPanel.add(difficultyPanel, BorderLayout.WEST);
+        topPanel.add(timerLabel, BorderLayout.CENTER);
+        
+        promptArea = new JTextArea(4, 0);
+        promptArea.setFont(new Font("Monospace", Font.PLAIN, 18));
+        promptArea.setEditable(false);
+        promptArea.setLineWrap(true);
+        promptArea.setWrapStyleWord(true);
+        promptArea.setBorder(new CompoundBorder(
+            BorderFactory.createTitledBorder("📝 Type this text:"),
+            new EmptyBorder(10, 10, 10, 10)
+        ));
+        mistakePainter = new MistakePainter(promptArea);
+        
+        inputArea = new JTextArea(4, 0);
+        typingFont = new Font("Monospace", Font.PLAIN, 18);
+        inputArea.setFont(typingFont);
+        inputArea.setLineWrap(true);
+        inputArea.setWrapStyleWord(true);
+        inputArea.setBorder(new CompoundBorder(
+            BorderFactory.createTitledBorder("✏️ Your typing:"),
+            new EmptyBorder(10, 10, 10, 10)
+        ));
+        
+        // Add document listener for real-time feedback
+        // only the edited range is handed to the diff engine, no getText() per keystroke
+        inputArea.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) {
+                try {
+                    e.getDocument().getText(e.getOffset(), e.getLength(), insertedText);
+                } catch (BadLocationException ex) {
+                    ex.printStackTrace();
+                    return;
+                }
+                int before = session.typedLength();
+                session.insert(System.nanoTime(), e.getOffset(), insertedText);
+                mistakePainter.edited(e.getOffset(), before, session.typedLength());
+                metrics.keystroke();
+                onTextChange();
+                if (latencyProbe.isEnabled()) latencyProbe.handled();
+            }
+            public void removeUpdate(DocumentEvent e) {
+                if (trimmingInput) return;
+                int before = session.typedLength();
+                session.remove(System.nanoTime(), e.getOffset(), e.getLength());
+                mistakePainter.edited(e.getOffset(), before, session.typedLength());
+                metrics.keystroke();
+                onTextChange();
+                if (latencyProbe.isEnabled()) latencyProbe.handled();
+            }
+            public void changedUpdate(DocumentEvent e) { }
+        });
+
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setString("Progress: 0%");
+        progressBar.setPreferredSize(new Dimension(0, 30));
+        
+        JScrollPane promptScroll = new JScrollPane(promptArea);
+        JScrollPane inputScroll = new JScrollPane(inputArea);
+        
+        panel.add(topPanel, BorderLayout.NORTH);
+        panel.add(promptScroll, BorderLayout.CENTER);
+        panel.add(inputScroll, BorderLayout.SOUTH);
+        
+        // progress barrrrrrrrrr
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        bottomPanel.add(progressBar, BorderLayout.CENTER);
+        panel.add(bottomPanel, BorderLayout.SOUTH);
+        
+        return panel;
+    }
+    
+    private JPanel createControlPanel() {
+        JPanel panel = new JPanel(new FlowLayout());
+        panel.setBorder(new EmptyBorder(10, 20, 20, 20));
+        
+        startButton = createStyledButton("🚀 Start Test", new Color(52, 152, 219));
+        startButton.setForeground(Color.BLACK);
+        startButton.addActionListener(e -> startTest());
+        
+        pauseButton = createStyledButton("⏸️ Pause", new Color(241, 196, 15));
+        pauseButton.setForeground(Color.BLACK);
+        pauseButton.addActionListener(e -> togglePause());
+        pauseButton.setEnabled(false);
+        
+        resetButton = createStyledButton("🔄 Reset", new Color(231, 76, 60));
+        resetButton.setForeground(Color.BLACK);
+        resetButton.addActionListener(e -> resetTest());
+        
+        hintButton = createStyledButton("💡 Hint", new Color(155, 89, 182));
+        hintButton.setForeground(Color.BLACK);
+        hintButton.addActionListener(e -> showHint());
+        
+        JButton newTextButton = createStyledButton("📝 New Text", new Color(46, 204, 113));
+        newTextButton.setForeground(Color.BLACK);
+        newTextButton.addActionListener(e -> loadNewText());
+        
+        panel.add(startButton);
+        panel.add(pauseButton);
+        panel.add(resetButton);
+        panel.add(hintButton);
+        panel.add(newTextButton);
+        
+        return panel;
+    }
+    
+    private JPanel createRealTimeStatsPanel() {
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.setBorder(new CompoundBorder(
+            BorderFactory.createTitledBorder("📊 Live Stats"),
+            new EmptyBorder(10, 10, 10, 10)
+        ));
+        panel.setPreferredSize(new Dimension(250, 0));
+        
+        wpmLabel = createStatLabel("WPM: 0");
+        accuracyLabel = createStatLabel("Accuracy: 100%");
+        mistakeCountLabel = createStatLabel("Mistakes: 0");
+        
+        accuracyBar = new JProgressBar(0, 100);
+        accuracyBar.setValue(100);
+        accuracyBar.setStringPainted(true);
+        accuracyBar.setString("Perfect!");
+        
+        // Add achievement notifications area
+        JTextArea achievementsArea = new JTextArea(5, 20);
+        achievementsArea.setEditable(false);
+        achievementsArea.setBorder(BorderFactory.createTitledBorder("🏆 Achievements"));
+        JScrollPane achievementsScroll = new JScrollPane(achievementsArea);
+        
+        // input latency overlay, only shown while the probe is on
+        latencyLabel = new JLabel();
+        latencyLabel.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+        latencyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        latencyLabel.setVisible(false);
+        
+        panel.add(wpmLabel);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(accuracyLabel);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(mistakeCountLabel);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(accuracyBar);
+        panel.add(Box.createVerticalStrut(20));
+        panel.add(achievementsScroll);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(latencyLabel);
+        
+        return panel;
+    }
+    
+    private void createStatsTab() {
+        statsPanel = new JPanel(new BorderLayout());
+        
+        // stats panel (popup)
+        JPanel summaryPanel = new JPanel(new GridLayout(2, 3, 10, 10));
+        summaryPanel.setBorder(new CompoundBorder(
+            BorderFactory.createTitledBorder("📈 Performance Summary"),
+            new EmptyBorder(20, 20, 20, 20)
+        ));
+        
+        avgWpmLabel = new JLabel("Avg WPM: 0", JLabel.CENTER);
+        avgWpmLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        
+        avgAccuracyLabel = new JLabel("Avg Accuracy: 0%", JLabel.CENTER);
+        avgAccuracyLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        
+        totalTimeLabel = new JLabel("Total Time: 0 min", JLabel.CENTER);
+        totalTimeLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        
+        improvementLabel = new JLabel("Improvement: +0%", JLabel.CENTER);
+        improvementLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        
+        summaryBestWpmLabel = new JLabel("Best: 0 WPM", JLabel.CENTER);
+        summaryBestWpmLabel.setFont(new Font("Arial", Font.BOLD, 16));
+        
+        summaryPanel.add(totalTestsLabel);
+        summaryPanel.add(avgWpmLabel);
+        summaryPanel.add(avgAccuracyLabel);
+        summaryPanel.add(totalTimeLabel);
+        summaryPanel.add(summaryBestWpmLabel);
+        summaryPanel.add(improvementLabel);
+        
+        historyModel = new HistoryTableModel(testHistory);
+        historyTable = new JTable(historyModel);
+        historyTable.setFont(new Font("Monospace", Font.PLAIN, 12));
+        JScrollPane tableScroll = new JScrollPane(historyTable);
+        tableScroll.setBorder(BorderFactory.createTitledBorder("📋 Test History"));
+        
+        // features of stats 
+        JPanel statsControlPanel = new JPanel(new FlowLayout());
+        exportButton = createStyledButton("📤 Export Data", new Color(52, 152, 219));
+        exportButton.setForeground(Color.BLACK);
+        importButton = createStyledButton("📥 Import Data", new Color(52, 152, 219));
+        importButton.setForeground(Color.BLACK);
+        clearHistoryButton = createStyledButton("🗑️ Clear History", new Color(231, 76, 60));
+        clearHistoryButton.setForeground(Color.BLACK);
+        JButton generateReportButton = createStyledButton("📊 Generate Report", new Color(46, 204, 113));
+        generateReportButton.setForeground(Color.BLACK);
+        
+        
+        // export/import progress, only visible while one is running
+        transferBar = new JProgressBar(0, 100);
+        transferBar.setStringPainted(true);
+        transferBar.setPreferredSize(new Dimension(200, 25));
+        transferBar.setVisible(false);
+        cancelTransferButton = createStyledButton("✖️ Cancel", new Color(231, 76, 60));
+        cancelTransferButton.setForeground(Color.BLACK);
+        cancelTransferButton.setVisible(false);
+        
+        exportButton.addActionListener(e -> exportData());
+        importButton.addActionListener(e -> importData());
+        clearHistoryButton.addActionListener(e -> clearHistory());
+        generateReportButton.addActionListener(e -> generateReport());
+        cancelTransferButton.addActionListener(e -> transferCancelled = true);
+        
+        statsControlPanel.add(exportButton);
+        statsControlPanel.add(importButton);
+        statsControlPanel.add(clearHistoryButton);
+        statsControlPanel.add(generateReportButton);
+        statsControlPanel.add(transferBar);
+        statsControlPanel.add(cancelTransferButton);
+        
+        statsPanel.add(summaryPanel, BorderLayout.NORTH);
+        statsPanel.add(tableScroll, BorderLayout.CENTER);
+        statsPanel.add(statsControlPanel, BorderLayout.SOUTH);
+        
+        mainTabs.setComponentAt(STATS_TAB, statsPanel);
+        showAnalytics(analytics.snapshot());
+    }
+    
+    private void createSettingsTab() {
+        settingsPanel = new JPanel();
+        settingsPanel.setLayout(new BoxLayout(settingsPanel, BoxLayout.Y_AXIS));
+        settingsPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+        
+        // thmeseeeeeee
+        JPanel themePanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        themePanel.setBorder(BorderFactory.createTitledBorder("🎨 Appearance"));
+        themePanel.add(new JLabel("Theme:"));
+        themeCombo = new JComboBox<>(themes.keySet().toArray(new String[0]));
+        themeCombo.setSelectedItem(currentTheme);
+        themeCombo.addActionListener(e -> changeTheme());
+        themePanel.add(themeCombo);
+        
+        themePanel.add(Box.createHorizontalStrut(20));
+        themePanel.add(new JLabel("Font Size:"));
+        fontSizeCombo = new JComboBox<>(new String[]{"12", "14", "16", "18", "20", "22", "24"});
+        fontSizeCombo.setSelectedItem("18");
+        fontSizeCombo.addActionListener(e -> changeFontSize());
+        themePanel.add(fontSizeCombo);
+        
+        JPanel audioPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        audioPanel.setBorder(BorderFactory.createTitledBorder("🔊 Audio"));
+        soundCheckbox = new JCheckBox("Enable Sound Effects", soundEnabled);
+        soundCheckbox.addActionListener(e -> soundEnabled = soundCheckbox.isSelected());
+        audioPanel.add(soundCheckbox);
+        
+        audioPanel.add(Box.createHorizontalStrut(20));
+        audioPanel.add(new JLabel("Volume:"));
+        volumeSlider = new JSlider(0, 100, 70);
+        volumeSlider.setPreferredSize(new Dimension(100, 30));
+        volumeSlider.addChangeListener(e -> sounds.setVolume(volumeSlider.getValue() / 100f));
+        sounds.setVolume(volumeSlider.getValue() / 100f);
+        audioPanel.add(volumeSlider);
+
+        JPanel gameplayPanel = new JPanel();
+        gameplayPanel.setLayout(new BoxLayout(gameplayPanel, BoxLayout.Y_AXIS));
+        gameplayPanel.setBorder(BorderFactory.createTitledBorder("🎮 Gameplay"));
+        
+        realTimeCheckbox = new JCheckBox("Real-time Statistics", true);
+        mistakeHighlightCheckbox = new JCheckBox("Highlight Mistakes", highlightMistakes);
+        mistakeHighlightCheckbox.addActionListener(e -> {
+            highlightMistakes = mistakeHighlightCheckbox.isSelected();
+            mistakePainter.setEnabled(highlightMistakes);
+        });
+        JCheckBox autoAdvanceCheckbox = new JCheckBox("Auto-advance Difficulty", false);
+        JCheckBox showKeyboardCheckbox = new JCheckBox("Show Virtual Keyboard", false);
+        generateCheckbox = new JCheckBox("Generate Fresh Passages", generatePassages);
+        generateCheckbox.addActionListener(e -> generatePassages = generateCheckbox.isSelected());
+        latencyCheckbox = new JCheckBox("Show Input Latency Overlay", latencyProbe.isEnabled());
+        latencyCheckbox.addActionListener(e -> setLatencyProbe(latencyCheckbox.isSelected()));
+        recordCheckbox = new JCheckBox("Record Sessions for Replay", recordSessions);
+        recordCheckbox.addActionListener(e -> {
+            recordSessions = recordCheckbox.isSelected();
+            setRecording(recordSessions);
+        });
+        
+        gameplayPanel.add(realTimeCheckbox);
+        gameplayPanel.add(mistakeHighlightCheckbox);
+        gameplayPanel.add(autoAdvanceCheckbox);
+        gameplayPanel.add(showKeyboardCheckbox);
+        gameplayPanel.add(generateCheckbox);
+        gameplayPanel.add(latencyCheckbox);
+        gameplayPanel.add(recordCheckbox);
+        
+        // not working wait -- need to work on it
+        JPanel customTextPanel = new JPanel(new BorderLayout());
+        customTextPanel.setBorder(BorderFactory.createTitledBorder("📝 Custom Text"));
+        JTextArea customTextArea = new JTextArea(5, 40);
+        JButton loadCustomButton = createStyledButton("Load Custom Text", new Color(155, 89, 182));
+  
+        loadCustomButton.setForeground(Color.BLACK);
+        customTextPanel.add(new JScrollPane(customTextArea), BorderLayout.CENTER);
+        customTextPanel.add(loadCustomButton, BorderLayout.SOUTH);
+        
+        settingsPanel.add(themePanel);
+        settingsPanel.add(Box.createVerticalStrut(10));
+        settingsPanel.add(audioPanel);
+        settingsPanel.add(Box.createVerticalStrut(10));
+        settingsPanel.add(gameplayPanel);
+        settingsPanel.add(Box.createVerticalStrut(10));
+        settingsPanel.add(customTextPanel);
+        
+        mainTabs.setComponentAt(SETTINGS_TAB, settingsPanel);
+    }
+    
+    private void createLeaderboardTab() {
+        leaderboardPanel = new JPanel(new BorderLayout());
+        
+        // filled from the room's leaderboard server when there is one, see pollLeaderboard()
+        String[] leaderColumnNames = {"Rank", "Player", "WPM", "Accuracy", "Difficulty", "Date"};
+        leaderModel = new DefaultTableModel(leaderColumnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        leaderboardTable = new JTable(leaderModel);
+        leaderboardTable.setFont(new Font("Monospace", Font.PLAIN, 12));
+        
+        JScrollPane leaderScroll = new JScrollPane(leaderboardTable);
+        leaderBorder = BorderFactory.createTitledBorder("🏆 Room Leaderboard - start with -Dtypingtester.leaderboard=<url>");
+        leaderScroll.setBorder(leaderBorder);
+        
+        JPanel achievementPanel = new JPanel(new GridLayout(3, 3, 10, 10));
+        achievementPanel.setBorder(BorderFactory.createTitledBorder("🎖️ Achievements"));
+        
+        String[] achievements = {
+            "First Steps", "Speed Demon", "Accuracy Master",
+            "Consistency King", "Marathon Typist", "Perfect Game",
+            "Level Up", "Mistake Free", "Lightning Fast"
+        };
+        
+        for (String achievement : achievements) {
+            JPanel achPanel = new JPanel(new BorderLayout());
+            achPanel.setBorder(BorderFactory.createEtchedBorder());
+            achPanel.add(new JLabel(achievement, JLabel.CENTER), BorderLayout.CENTER);
+            achPanel.add(new JLabel("🔒", JLabel.CENTER), BorderLayout.SOUTH);
+            achievementPanel.add(achPanel);
+        }
+        
+        leaderboardPanel.add(leaderScroll, BorderLayout.CENTER);
+        leaderboardPanel.add(achievementPanel, BorderLayout.SOUTH);
+        
+        mainTabs.setComponentAt(LEADERBOARD_TAB, leaderboardPanel);
+    }
+    
+    private JButton createStyledButton(String text, Color color) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Arial", Font.BOLD, 12));
+        button.setBackground(color);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createRaisedBevelBorder());
+        button.setPreferredSize(new Dimension(140, 35));
+        return button;
+    }
+    
+    private JLabel createStatLabel(String text) {
+        JLabel label = new JLabel(text, JLabel.CENTER);
+        label.setFont(new Font("Arial", Font.BOLD, 16));
+        label.setBorder(BorderFactory.createEtchedBorder());
+        label.setPreferredSize(new Dimension(200, 30));
+        return label;
+    }
+    
+    private void setupKeyboardShortcuts() {
+        KeyStroke startKey = KeyStroke.getKeyStroke(KeyEvent.VK_F1, 0);
+        KeyStroke resetKey = KeyStroke.getKeyStroke(KeyEvent.VK_F2, 0);
+        KeyStroke pauseKey = KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0);
+        
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(startKey, "start");
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(resetKey, "reset");
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(pauseKey, "pause");
+        
+        getRootPane().getActionMap().put("start", new AbstractAction() {
+            public void actionPerformed(ActionEvent e) { startTest(); }
+        });
+        getRootPane().getActionMap().put("reset", new AbstractAction() {
+            public void actionPerformed(ActionEvent e) { resetTest(); }
+        });
+        getRootPane().getActionMap().put("pause", new AbstractAction() {
+            public void actionPerformed(ActionEvent e) { togglePause(); }
+        });
+    }
+    
+    private void loadNewText() {
+        int seconds = MODE_SECONDS[modeCombo.getSelectedIndex()];
+        currentText = nextPassage();
+        if (seconds > 0) {
+            // timed: the start of an endless stream, topped up as the user types
+            StringBuilder window = new StringBuilder(currentText);
+            while (window.length() < PROMPT_LOOKAHEAD) {
+                window.append(' ').append(nextPassage());
+            }
+            currentText = window.toString();
+        }
+        if (session == null) {
+            session = new TypingSession(currentText);
+            setRecording(recordSessions);
+        } else {
+            session.setTarget(currentText);
+        }
+        session.setTimeLimit(seconds);
+        promptArea.setText(currentText);
+        promptArea.setCaretPosition(0);
+        mistakePainter.setSession(session);
+    }
+    
+    // takes effect from the next test on
+    private void setRecording(boolean on) {
+        if (on == (session.getRecording() != null)) return;
+        session.setRecording(on ? new SessionRecording() : null);
+    }
+    
+    // one file per completed test, written off the EDT - a failed write only loses the recording
+    private void saveRecording(SessionRecording recording) {
+        if (recording == null || recording.size() == 0) return;
+        byte[] bytes = recording.toByteArray();
+        Path file = SessionRecording.defaultDirectory().resolve("session-" + System.currentTimeMillis() + ".tskr");
+        CompletableFuture.runAsync(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(file, bytes);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+    
+    private String nextPassage() {
+        String difficulty = (String) difficultyCombo.getSelectedItem();
+        int ordinal = Passages.levelOrdinal(difficulty);
+        String text = generatePassages
+            ? generator().generate(ordinal, random)
+            : corpus.pick(ordinal, random);
+        if (text == null) {
+            // nothing at this level
+            String[] texts = Passages.DIFFICULTY_TEXTS.get(difficulty);
+            text = texts[random.nextInt(texts.length)];
+        }
+        return text;
+    }
+    
+    // timed tests: typed text scrolls out of both areas and new text streams in
+    // at the back, so the documents (and the diff) stay a few hundred chars long
+    private void advancePromptWindow() {
+        if (session.typedLength() >= PROMPT_KEEP_BEHIND + PROMPT_RETIRE_STEP) {
+            int dropped = session.retireTyped(PROMPT_KEEP_BEHIND);
+            if (dropped > 0) {
+                trimmingInput = true;
+                try {
+                    inputArea.getDocument().remove(0, dropped);
+                    promptArea.getDocument().remove(0, dropped);
+                } catch (BadLocationException e) {
+                    e.printStackTrace();
+                } finally {
+                    trimmingInput = false;
+                }
+            }
+        }
+        while (session.untypedLength() < PROMPT_LOOKAHEAD) {
+            String chunk = " " + nextPassage();
+            session.appendTarget(chunk);
+            promptArea.append(chunk);
+        }
+        currentText = session.getTarget();
+    }
+    
+    private void startTest() {
+        if (currentText == null || currentText.isEmpty()) {
+            loadNewText();
+        }
+        
+        inputArea.setText("");
+        session.start();
+        inputArea.setEnabled(true);
+        inputArea.requestFocus();
+        mistakeCount = 0;
+        
+        startButton.setEnabled(false);
+        pauseButton.setEnabled(true);
+        liveView.showStatus("Start typing to begin...");
+        updateProgress(0);
+        
+        playSound(SoundEngine.Sound.START);
+    }
+    
+    private void togglePause() {
+        if (!session.isStarted()) return;
+        
+        if (session.isPaused()) {
+            // Resume
+            session.resume(System.nanoTime());
+            inputArea.setEnabled(true);
+            inputArea.requestFocus();
+            pauseButton.setText("⏸️ Pause");
+            uiTimer.start();
+            if (session.isTimed()) countdownTimer.start();
+            liveView.showStatus("Resumed - Keep typing!");
+        } else {
+            // Pause
+            session.pause(System.nanoTime());
+            uiTimer.stop();
+            countdownTimer.stop();
+            inputArea.setEnabled(false);
+            pauseButton.setText("▶️ Resume");
+            liveView.showStatus("⏸️ PAUSED - Click Resume to continue");
+        }
+    }
+    
+    private void resetTest() {
+        uiTimer.stop();
+        countdownTimer.stop();
+        timerLabel.setForeground(Color.BLACK);
+        mistakeCount = 0;
+        
+        inputArea.setText("");
+        session.start();
+        inputArea.setEnabled(true);
+        startButton.setEnabled(true);
+        pauseButton.setEnabled(false);
+        pauseButton.setText("⏸️ Pause");
+        
+        liveView.showStatus("Ready to Start!");
+        updateStats(0, 100, "Ready");
+        updateProgress(0);
+        loadNewText();
+    }
+    
+    // the session has already seen the edit, this is just the UI side
+    private void onTextChange() {
+        if (session.isStarted() && !uiTimer.isRunning() && !session.isPaused()) {
+            uiTimer.start();
+            if (session.isTimed()) {
+                countdownSeconds = (int) Math.ceil(session.getTimeLimit());
+                countdownTimer.start();
+            }
+            liveView.showStatus("Timer started! 🔥");
+            playSound(SoundEngine.Sound.TYPE);
+        }
+        
+        if (session.isStarted() && !session.isPaused()) {
+            // khatam hua?
+            if (session.isComplete()) {
+                completeTest();
+                return;
+            }
+            
+            // Update progress (timed tests go by the clock, see updateTimer)
+            if (!session.isTimed()) {
+                double percent = (double) session.typedLength() / currentText.length() * 100;
+                updateProgress(Math.min(100, percent));
+            }
+            
+            // Highlight mistakes in real-time
+            if (highlightMistakes) {
+                highlightMistakes();
+            }
+        }
+    }
+    
+    private void highlightMistakes() {
+        // in real time - the diff engine already keeps the count
+        int mistakes = session.getMistakes();
+        
+        if (mistakes != mistakeCount) {
+            mistakeCount = mistakes;
+            playSound(SoundEngine.Sound.ERROR);
+        }
+    }
+    
+    private void updateRealTimeStats() {
+        if (!session.isStarted() || session.isPaused()) return;
+        
+        long now = System.nanoTime();
+        if (session.isTimeUp(now)) {
+            completeTest();
+            return;
+        }
+        if (session.isTimed()) {
+            advancePromptWindow();
+        }
+        SessionStats stats = session.snapshot(now, liveStats);
+        
+        if (stats.seconds <= 0) return;
+        metrics.sessionTick(stats.wpm, session.getKeystrokes(), stats.mistakes, stats.seconds);
+        
+        updateStats(stats.wpm, stats.accuracy, stats.skillLevel);
+        updateTimer(stats.seconds);
+        
+        // xp kese badegi
+        double xpGain = Scoring.tickXp(stats.wpm, stats.accuracy);
+        if (xpGain > 0) {
+            updateLevel(progress.addXp(xpGain));
+        }
+    }
+    
+    private void updateTimer(double seconds) {
+        if (session.isTimed()) {
+            double limit = session.getTimeLimit();
+            liveView.setClock((int) Math.ceil(limit - seconds), true);
+            updateProgress(Math.min(100, seconds / limit * 100));
+            return;
+        }
+        liveView.setClock((int) seconds, false);
+    }
+    
+    private void updateProgress(double progress) {
+        liveView.setProgress(progress);
+    }
+    
+      private void updateLevel(boolean leveledUp) {
+        if (leveledUp) {
+            updateLevelDisplay();
+            showLevelUpAnimation();
+            playSound(SoundEngine.Sound.LEVEL_UP);
+        }
+        
+        double xpInCurrentLevel = progress.xpInCurrentLevel();
+        levelProgressBar.setValue((int) xpInCurrentLevel);
+        levelProgressBar.setString(String.format("XP: %.0f/%d", xpInCurrentLevel, Scoring.BASE_XP_PER_LEVEL));
+    }
+    private void updateLevelDisplay() {
+        setTitle("🚀 Advanced Typing Speed Tester Pro - Level " + progress.getCurrentLevel());
+        levelLabel.setText("Level " + progress.getCurrentLevel());
+    }
+    private void showLevelUpAnimation() {
+        JDialog levelUpDialog = new JDialog(this, "Level Up!", true);
+        levelUpDialog.setLayout(new BorderLayout());
+        
+        JLabel levelUpLabel = new JLabel("🎉 LEVEL UP! 🎉", JLabel.CENTER);
+        levelUpLabel.setFont(new Font("Arial", Font.BOLD, 24));
+        levelUpLabel.setForeground(new Color(46, 204, 113));
+        
+        JLabel newLevelLabel = new JLabel("You are now Level " + progress.getCurrentLevel() + "!", JLabel.CENTER);
+        newLevelLabel.setFont(new Font("Arial", Font.PLAIN, 16));
+        
+        JButton okButton = new JButton("Awesome!");
+        okButton.addActionListener(e -> levelUpDialog.dispose());
+        
+        JPanel panel = new JPanel();
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        panel.add(Box.createVerticalStrut(20));
+        panel.add(levelUpLabel);
+        panel.add(Box.createVerticalStrut(10));
+        panel.add(newLevelLabel);
+        panel.add(Box.createVerticalStrut(20));
+        panel.add(okButton);
+        panel.add(Box.createVerticalStrut(20));
+        
+        levelUpDialog.add(panel);
+        levelUpDialog.pack();
+        levelUpDialog.setLocationRelativeTo(this);
+        levelUpDialog.setVisible(true);
+    }
+    
+    private void completeTest() {
+        if (!session.isStarted()) return; // the countdown and the stats tick can both get here
+        uiTimer.stop();
+        countdownTimer.stop();
+        timerLabel.setForeground(Color.BLACK);
+        inputArea.setEnabled(false);
+        
+        SessionStats stats = session.complete(System.nanoTime());
+        saveRecording(session.getRecording());
+        double timeInSeconds = stats.seconds;
+        double wpm = stats.wpm;
+        int accuracy = stats.accuracy;
+        String difficulty = (String) difficultyCombo.getSelectedItem();
+        
+        // Update statistics
+        double xpReward = progress.recordResult(wpm, accuracy);
+        metrics.testCompleted(wpm, stats.mistakes, progress.getBestWPM());
+        streakLabel.setText("Streak: " + progress.getCurrentStreak() + " (Best: " + progress.getBestStreak() + ")");
+        
+        // how it compares, asked before this run goes in
+        String comparison = compareWithHistory(Passages.levelOrdinal(difficulty), difficulty, wpm, accuracy, timeInSeconds);
+        
+        // to history
+        sketches.add(Passages.levelOrdinal(difficulty), wpm, accuracy, timeInSeconds);
+        int row = testHistory.add(wpm, accuracy, timeInSeconds, difficulty, progress.getCurrentLevel(), System.currentTimeMillis(),
+            stats.keyP50Ms, stats.keyP90Ms, stats.keyP99Ms);
+        analytics.catchUp(testHistory.view());
+        if (historyModel != null) historyModel.rowAdded(row); // else built with this row when the tab opens
+        submitToLeaderboard(difficulty, wpm, accuracy);
+        
+        // XP reward
+        updateLevel(progress.addXp(xpReward));
+        
+        // Check achievements
+        checkAchievements(wpm, accuracy, timeInSeconds);
+        
+        updateStats(wpm, accuracy, stats.skillLevel);
+        liveView.showStatus(String.format("✅ Completed in %.1f seconds!", timeInSeconds));
+        
+        startButton.setEnabled(true);
+        pauseButton.setEnabled(false);
+        
+        playSound(SoundEngine.Sound.COMPLETE);
+        showCompletionDialog(stats, xpReward, difficulty, comparison);
+    }
+    
+    private String compareWithHistory(int ordinal, String difficulty, double wpm, int accuracy, double seconds) {
+        long runs = sketches.count(ordinal);
+        if (runs == 0) return "First " + difficulty + " run!";
+        return String.format("Beats %.0f%% on WPM, %.0f%% on accuracy, %.0f%% on time (%d runs)",
+            sketches.beats(ordinal, HistorySketches.WPM, wpm) * 100,
+            sketches.beats(ordinal, HistorySketches.ACCURACY, accuracy) * 100,
+            sketches.beats(ordinal, HistorySketches.TIME, seconds) * 100, runs);
+    }
+    
+    private void showCompletionDialog(SessionStats stats, double xpGained, String difficulty, String comparison) {
+        JDialog completionDialog = new JDialog(this, "Test Completed!", true);
+        completionDialog.setLayout(new BorderLayout());
+        
+        JPanel resultsPanel = new JPanel(new GridLayout(11, 2, 10, 10));
+        resultsPanel.setBorder(new EmptyBorder(20, 20, 20, 20));
+        
+        resultsPanel.add(new JLabel("⚡ Words Per Minute:"));
+        resultsPanel.add(new JLabel(String.format("%.1f WPM", stats.wpm)));
+        
+        resultsPanel.add(new JLabel("📏 Net WPM (5-char words):"));
+        resultsPanel.add(new JLabel(String.format("%.1f WPM", stats.netWpm)));
+        
+        resultsPanel.add(new JLabel("🔤 Characters Per Minute:"));
+        resultsPanel.add(new JLabel(String.format("%.0f CPM (%.2f keys/char)", stats.cpm, stats.keystrokesPerChar)));
+        
+        resultsPanel.add(new JLabel("⌨️ Key Interval p50/p90/p99:"));
+        resultsPanel.add(new JLabel(String.format("%.0f / %.0f / %.0f ms (max %.0f)",
+            stats.keyP50Ms, stats.keyP90Ms, stats.keyP99Ms, stats.keyMaxMs)));
+        
+        resultsPanel.add(new JLabel("🎯 Accuracy:"));
+        resultsPanel.add(new JLabel(stats.accuracy + "%"));
+        
+        resultsPanel.add(new JLabel("🔍 Correct / Wrong / Extra / Skipped:"));
+        resultsPanel.add(new JLabel(String.format("%d / %d / %d / %d", stats.correctChars,
+            stats.substitutedChars, stats.insertedChars, stats.omittedChars)));
+        
+        resultsPanel.add(new JLabel("⏱️ Time Taken:"));
+        resultsPanel.add(new JLabel(String.format("%.1f seconds", stats.seconds)));
+        
+        resultsPanel.add(new JLabel("❌ Mistakes:"));
+        resultsPanel.add(new JLabel(String.valueOf(stats.mistakes)));
+        
+        resultsPanel.add(new JLabel("🌟 XP Gained:"));
+        resultsPanel.add(new JLabel(String.format("+%.0f XP", xpGained)));
+        
+        resultsPanel.add(new JLabel("🏆 Skill Level:"));
+        resultsPanel.add(new JLabel(stats.skillLevel));
+        
+        resultsPanel.add(new JLabel("📈 vs Your " + difficulty + " Runs:"));
+        resultsPanel.add(new JLabel(comparison));
+        
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+        JButton newTestButton = createStyledButton("🚀 New Test", new Color(0,0,0));
+              newTestButton.setForeground(Color.BLACK);
+        JButton viewStatsButton = createStyledButton("📊 View Stats", new Color(0, 0, 0));
+              viewStatsButton.setForeground(Color.BLACK);
+        JButton closeButton = createStyledButton("✖️ Close", new Color(0, 0, 0));
+              closeButton.setForeground(Color.BLACK);
+        
+        newTestButton.addActionListener(e -> {
+            completionDialog.dispose();
+            startTest();
+        });
+        viewStatsButton.addActionListener(e -> {
+            completionDialog.dispose();
+            mainTabs.setSelectedIndex(1); // Switch to stats tab
+        });
+        closeButton.addActionListener(e -> completionDialog.dispose());
+        
+        buttonPanel.add(newTestButton);
+        buttonPanel.add(viewStatsButton);
+        buttonPanel.add(closeButton);
+        
+        completionDialog.add(resultsPanel, BorderLayout.CENTER);
+        completionDialog.add(buttonPanel, BorderLayout.SOUTH);
+        
+        completionDialog.pack();
+        completionDialog.setLocationRelativeTo(this);
+        completionDialog.setVisible(true);
+    }
+    
+    private void checkAchievements(double wpm, int accuracy, double time) {
+        // Implementation for achievement checking
+        if (progress.getTotalTests() == 1) {
+            showAchievement("🏁 First Steps", "Completed your first typing test!");
+        }
+        if (wpm >= 80) {
+            showAchievement("⚡ Speed Demon", "Typed at 80+ WPM!");
+        }
+        if (accuracy == 100) {
+            showAchievement("🎯 Perfect Game", "100% accuracy achieved!");
+        }
+        if (progress.getCurrentStreak() >= 5) {
+            showAchievement("🔥 On Fire", "5 accurate tests in a row!");
+        }
+    }
+    
+    private void showAchievement(String title, String description) {
+        JOptionPane.showMessageDialog(this,
+            description,
+            "🏆 Achievement Unlocked: " + title,
+            JOptionPane.INFORMATION_MESSAGE);
+    }
+    
+    private void showHint() {
+        int typedLength = session.typedLength();
+        if (typedLength < currentText.length()) {
+            char nextChar = currentText.charAt(typedLength);
+            JOptionPane.showMessageDialog(this,
+                "Next character: '" + nextChar + "'",
+                "💡 Hint",
+                JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+    
+    private void changeDifficulty() {
+        loadNewText();
+        resetTest();
+    }
+    
+    private void changeTheme() {
+        currentTheme = (String) themeCombo.getSelectedItem();
+        applyTheme();
+    }
+    
+    private void applyTheme() {
+        Color themeColor = themes.get(currentTheme);
+        
+        // Apply theme to main components
+        mainTabs.setBackground(themeColor);
+        if (promptArea != null) {
+            promptArea.setBackground(themeColor.brighter());
+        }
+        
+        // Update all panels
+        updatePanelTheme(typingPanel, themeColor);
+        updatePanelTheme(statsPanel, themeColor);
+        updatePanelTheme(settingsPanel, themeColor);
+        updatePanelTheme(leaderboardPanel, themeColor);
+        
+        repaint();
+    }
+    
+    private void updatePanelTheme(JPanel panel, Color color) {
+        if (panel != null) {
+            panel.setBackground(color.brighter());
+        }
+    }
+    
+    private void changeFontSize() {
+        int size = Integer.parseInt((String) fontSizeCombo.getSelectedItem());
+        typingFont = new Font("Monospace", Font.PLAIN, size);
+        if (inputArea != null) {
+            inputArea.setFont(typingFont);
+            promptArea.setFont(typingFont);
+        }
+    }
+    
+    // only records the numbers, liveView puts them on screen with the next frame
+    private void updateStats(double wpm, int accuracy, String level) {
+        liveView.setStats(wpm, accuracy, mistakeCount);
+    }
+    
+    private void exportData() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Export Typing Data");
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV Files", "csv"));
+        
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        
+        File file = fileChooser.getSelectedFile();
+        HistoryStore rows = testHistory.view(); // rows added meanwhile aren't exported
+        SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    long start = System.nanoTime();
+                    int written = HistoryCsv.write(out, rows, new HistoryCsv.Progress() {
+                        public boolean isCancelled() { return transferCancelled; }
+                        public void update(long done, long total) { setProgress(percent(done, total)); }
+                    });
+                    if (!transferCancelled) {
+                        metrics.exportFinished(System.nanoTime() - start);
+                    }
+                    return written;
+                }
+            }
+            
+            @Override
+            protected void done() {
+                endTransfer();
+                try {
+                    int written = get();
+                    if (transferCancelled) {
+                        file.delete();
+                        JOptionPane.showMessageDialog(TypingSpeedTester.this, "Export cancelled.", "Export Cancelled", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(TypingSpeedTester.this, "Data exported successfully! (" + written + " tests)", "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                    }
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(TypingSpeedTester.this, "Error exporting data: " + cause.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        beginTransfer(worker, "Exporting");
+    }
+    
+    // reads in the background, rows land in the history batch by batch on the EDT
+    private void importData() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Import Typing Data");
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV Files", "csv"));
+        
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        
+        File file = fileChooser.getSelectedFile();
+        SwingWorker<Integer, HistoryBatch> worker = new SwingWorker<Integer, HistoryBatch>() {
+            private int imported = 0;
+            
+            @Override
+            protected Integer doInBackground() throws Exception {
+                try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    return HistoryCsv.read(in, in.size(), this::publish, new HistoryCsv.Progress() {
+                        public boolean isCancelled() { return transferCancelled; }
+                        public void update(long done, long total) { setProgress(percent(done, total)); }
+                    });
+                }
+            }
+            
+            @Override
+            protected void process(List<HistoryBatch> batches) {
+                for (HistoryBatch batch : batches) {
+                    int first = testHistory.addAll(batch);
+                    historyModel.rowsAdded(first, batch.size);
+                    sketches.addRows(testHistory, first);
+                    imported += batch.size;
+                }
+                analytics.catchUp(testHistory.view());
+            }
+            
+            @Override
+            protected void done() {
+                endTransfer();
+                testHistory.flush();
+                try {
+                    int skipped = get();
+                    String message = (transferCancelled ? "Import cancelled after " : "Imported ") + imported + " tests"
+                        + (skipped > 0 ? " (" + skipped + " unreadable lines skipped)" : "") + ".";
+                    JOptionPane.showMessageDialog(TypingSpeedTester.this, message, "Import Complete", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(TypingSpeedTester.this, "Error importing data: " + cause.getMessage(), "Import Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        beginTransfer(worker, "Importing");
+    }
+    
+    private static int percent(long done, long total) {
+        return total <= 0 ? 100 : (int) Math.min(100, done * 100 / total);
+    }
+    
+    // one export/import at a time, and no clearing the rows out from under it
+    private void beginTransfer(SwingWorker<?, ?> worker, String label) {
+        transferCancelled = false;
+        exportButton.setEnabled(false);
+        importButton.setEnabled(false);
+        clearHistoryButton.setEnabled(false);
+        transferBar.setValue(0);
+        transferBar.setString(label + "... 0%");
+        transferBar.setVisible(true);
+        cancelTransferButton.setVisible(true);
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName())) {
+                int value = (Integer) e.getNewValue();
+                transferBar.setValue(value);
+                transferBar.setString(label + "... " + value + "%");
+            }
+        });
+        worker.execute();
+    }
+    
+    private void endTransfer() {
+        exportButton.setEnabled(true);
+        importButton.setEnabled(true);
+        clearHistoryButton.setEnabled(true);
+        transferBar.setVisible(false);
+        cancelTransferButton.setVisible(false);
+    }
+    
+    // on the EDT, whenever the analytics thread publishes
+    // totals and best come from the persisted history, not just this run
+    private void showAnalytics(HistoryAnalytics.Snapshot snapshot) {
+        int all = HistoryAnalytics.ALL;
+        liveView.setTotalTests(snapshot.tests[all]);
+        bestWpmLabel.setText("Best: " + (int) snapshot.bestWpm[all] + " WPM");
+        if (avgWpmLabel == null) return; // the tab picks the latest up when it's built
+        summaryBestWpmLabel.setText(bestWpmLabel.getText());
+        avgWpmLabel.setText(String.format("Avg WPM: %.1f", snapshot.averageWpm[all]));
+        avgAccuracyLabel.setText(String.format("Avg Accuracy: %.1f%%", snapshot.averageAccuracy[all]));
+        totalTimeLabel.setText(String.format("Total Time: %.0f min", snapshot.totalSeconds / 60));
+        improvementLabel.setText(String.format("Improvement: %+.1f%%", snapshot.improvementPercent));
+    }
+    
+    private void clearHistory() {
+        int result = JOptionPane.showConfirmDialog(this,
+            "Are you sure you want to clear all test history?",
+            "Clear History", JOptionPane.YES_NO_OPTION);
+        
+        if (result == JOptionPane.YES_OPTION) {
+            testHistory.clear();
+            historyModel.cleared();
+            sketches.clear();
+            analytics.clear();
+            progress.clearStats();
+            updateStats(0, 100, "Ready");
+        }
+    }
+    
+    private void generateReport() {
+        if (testHistory.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No data available for report generation.", "No Data", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        String report = HistoryReport.build(analytics.snapshot(), progress, testHistory.size());
+        
+        JTextArea reportArea = new JTextArea(report);
+        reportArea.setFont(new Font("Monospace", Font.PLAIN, 12));
+        reportArea.setEditable(false);
+        
+        JScrollPane scrollPane = new JScrollPane(reportArea);
+        scrollPane.setPreferredSize(new Dimension(500, 400));
+        
+        JOptionPane.showMessageDialog(this, scrollPane, "Performance Report", JOptionPane.INFORMATION_MESSAGE);
+    }
+    
+    private void setLatencyProbe(boolean on) {
+        latencyProbe.setEnabled(on);
+        if (latencyCheckbox != null) latencyCheckbox.setSelected(on);
+        latencyLabel.setVisible(on);
+        if (on) {
+            updateLatencyOverlay();
+            latencyOverlayTimer.start();
+        } else {
+            latencyOverlayTimer.stop();
+        }
+    }
+    
+    private void updateLatencyOverlay() {
+        latencyLabel.setText("<html>Input latency ms (p50 / p99 / max)<br>"
+            + latencyRow("handler", latencyProbe.handler) + "<br>"
+            + latencyRow("echo", latencyProbe.echo) + "<br>"
+            + latencyRow("stats", latencyProbe.stats) + "</html>");
+    }
+    
+    private static String latencyRow(String name, LatencyHistogram histogram) {
+        return String.format("%-7s %6.1f %6.1f %6.1f", name,
+            histogram.percentileMs(0.50), histogram.percentileMs(0.99), histogram.maxMs()).replace(" ", "&nbsp;");
+    }
+    
+    private void playSound(SoundEngine.Sound sound) {
+        if (!soundEnabled) return;
+        sounds.play(sound);
+    }
+    
+    // Main method - yahase start
+    public static void main(String[] args) {
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        
+        SwingUtilities.invokeLater(() -> {
+            TypingSpeedTester app = new TypingSpeedTester();
+            if (Boolean.getBoolean("typingtester.firstFrameExit")) exitOnFirstFrame(app);
+            app.setVisible(true);
+        });
+    }
+    
+    // -Dtypingtester.firstFrameExit=true: prints the ms from JVM start to the
+    // first frame and exits, for startup measurements and build.sh's AppCDS
+    // training run. the report is queued behind the window's first paint
+    private static void exitOnFirstFrame(TypingSpeedTester app) {
+        app.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                SwingUtilities.invokeLater(() -> {
+                    long ms = ProcessHandle.current().info().startInstant()
+                        .map(start -> Duration.between(start, Instant.now()).toMillis()).orElse(-1L);
+                    System.out.println("first frame " + ms + " ms");
+                    System.exit(0);
+                });
+            }
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,253 @@
+package typingtester;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// the banded aligner against the full edit distance DP, and incremental
+// updates against a diff built from scratch
+class BandedAlignerTest {
+    private static final List<String> PASSAGES = new ArrayList<>();
+
+    static {
+        for (String level : Passages.LEVELS) {
+            for (String passage : Passages.DIFFICULTY_TEXTS.get(level)) PASSAGES.add(passage);
+        }
+    }
+
+    // correct, substituted, inserted, omitted for the cheapest prefix of the
+    // prompt, same tie rules as BandedAligner.best(): fewer edits, then more
+    // matches, then further into the prompt
+    static int[] exact(String prompt, String typed) {
+        int n = typed.length(), m = prompt.length();
+        int[] cost = new int[m + 1], matches = new int[m + 1];
+        int[] prevCost = new int[m + 1], prevMatches = new int[m + 1];
+        for (int j = 0; j <= m; j++) cost[j] = j;
+        for (int i = 1; i <= n; i++) {
+            int[] t = prevCost; prevCost = cost; cost = t;
+            t = prevMatches; prevMatches = matches; matches = t;
+            cost[0] = i;
+            matches[0] = 0;
+            for (int j = 1; j <= m; j++) {
+                boolean same = typed.charAt(i - 1) == prompt.charAt(j - 1);
+                int best = prevCost[j - 1] + (same ? 0 : 1), bestMatches = prevMatches[j - 1] + (same ? 1 : 0);
+                if (prevCost[j] + 1 < best || prevCost[j] + 1 == best && prevMatches[j] > bestMatches) {
+                    best = prevCost[j] + 1;
+                    bestMatches = prevMatches[j];
+                }
+                if (cost[j - 1] + 1 < best || cost[j - 1] + 1 == best && matches[j - 1] > bestMatches) {
+                    best = cost[j - 1] + 1;
+                    bestMatches = matches[j - 1];
+                }
+                cost[j] = best;
+                matches[j] = bestMatches;
+            }
+        }
+        int reached = 0;
+        for (int j = 1; j <= m; j++) {
+            if (cost[j] < cost[reached] || cost[j] == cost[reached] && matches[j] >= matches[reached]) reached = j;
+        }
+        int correct = matches[reached], distance = cost[reached];
+        int substituted = (n - correct) + (reached - correct) - distance;
+        return new int[] {correct, substituted, n - correct - substituted, reached - correct - substituted};
+    }
+
+    static int[] counts(DiffEngine diff) {
+        SessionStats stats = new SessionStats();
+        diff.fillAlignment(stats);
+        return new int[] {stats.correctChars, stats.substitutedChars, stats.insertedChars, stats.omittedChars};
+    }
+
+    private static String prompt(Random random, int passages) {
+        StringBuilder prompt = new StringBuilder();
+        for (int i = 0; i < passages; i++) {
+            if (i > 0) prompt.append(' ');
+            prompt.append(PASSAGES.get(random.nextInt(PASSAGES.size())));
+        }
+        return prompt.toString();
+    }
+
+    // types the prompt key by key with typos, fixed and unfixed: wrong keys,
+    // dropped and doubled chars, swapped pairs, a skipped short word now and
+    // then, backspaced mistakes. returns what ends up typed
+    private static String type(Random random, String prompt, DiffEngine diff) {
+        StringBuilder typed = new StringBuilder();
+        int stop = random.nextInt(4) == 0 ? random.nextInt(prompt.length()) : prompt.length();
+        for (int i = 0; i < stop; i++) {
+            char c = prompt.charAt(i);
+            double x = random.nextDouble();
+            if (x < 0.015) {
+                c = (char) ('a' + random.nextInt(26));
+            } else if (x < 0.0225) {
+                continue;
+            } else if (x < 0.03) {
+                key(diff, typed, c);
+            } else if (x < 0.035 && i + 1 < stop) {
+                key(diff, typed, prompt.charAt(i + 1));
+                key(diff, typed, c);
+                i++;
+                continue;
+            } else if (x < 0.0375 && c == ' ') {
+                int next = prompt.indexOf(' ', i + 1);
+                if (next > 0 && next - i <= BandedAligner.BAND / 2) i = next;
+                c = prompt.charAt(i);
+            } else if (x < 0.045) {
+                key(diff, typed, (char) ('a' + random.nextInt(26)));
+                diff.remove(typed.length() - 1, 1);
+                typed.setLength(typed.length() - 1);
+            }
+            key(diff, typed, c);
+        }
+        return typed.toString();
+    }
+
+    private static void key(DiffEngine diff, StringBuilder typed, char c) {
+        diff.insert(typed.length(), String.valueOf(c));
+        typed.append(c);
+    }
+
+    @Test
+    void bandedMatchesExactOnRealisticTyping() {
+        Random random = new Random(17);
+        for (int session = 0; session < 400; session++) {
+            String prompt = prompt(random, 1 + random.nextInt(6));
+            DiffEngine diff = new DiffEngine(prompt);
+            String typed = type(random, prompt, diff);
+            assertArrayEquals(exact(prompt, typed), counts(diff), () -> prompt + "\n" + typed);
+        }
+    }
+
+    @Test
+    void skippedWordIsOmittedNotSubstituted() {
+        String prompt = "requires not only theoretical understanding but also practical experience";
+        String typed = "requires not theoretical understanding but also practical experience";
+        DiffEngine diff = new DiffEngine(prompt);
+        for (int i = 0; i < typed.length(); i++) {
+            diff.insert(i, typed.substring(i, i + 1));
+        }
+        assertArrayEquals(new int[] {typed.length(), 0, 0, 5}, counts(diff));
+    }
+
+    // random inserts and removes anywhere, then the same text typed into a new diff in one go
+    @Test
+    void incrementalEditsMatchAFreshDiff() {
+        Random random = new Random(3);
+        for (int session = 0; session < 200; session++) {
+            String prompt = prompt(random, 1 + random.nextInt(4));
+            DiffEngine diff = new DiffEngine(prompt);
+            StringBuilder typed = new StringBuilder(type(random, prompt, diff));
+            for (int edit = 0; edit < 20; edit++) {
+                int at = random.nextInt(typed.length() + 1);
+                if (random.nextBoolean() && at < typed.length()) {
+                    int n = 1 + random.nextInt(Math.min(5, typed.length() - at));
+                    diff.remove(at, n);
+                    typed.delete(at, at + n);
+                } else {
+                    String text = prompt.substring(Math.min(at, prompt.length()), Math.min(at + 1 + random.nextInt(4), prompt.length()));
+                    if (text.isEmpty()) text = "x";
+                    diff.insert(at, text);
+                    typed.insert(at, text);
+                }
+            }
+            assertSameAsFresh(prompt, typed.toString(), diff);
+        }
+    }
+
+    // an edit further back than the ring of rows starts over from the first row
+    @Test
+    void editBehindTheRingMatchesAFreshDiff() {
+        Random random = new Random(11);
+        String prompt = prompt(random, 60);
+        assertTrue(prompt.length() > 5000);
+        DiffEngine diff = new DiffEngine(prompt);
+        String typed = type(random, prompt, diff);
+        diff.remove(3, 2);
+        diff.insert(3, "zz");
+        String edited = typed.substring(0, 3) + "zz" + typed.substring(5);
+        assertSameAsFresh(prompt, edited, diff);
+    }
+
+    // timed prompt window topped up behind the typing
+    @Test
+    void appendedPromptMatchesAFreshDiff() {
+        Random random = new Random(5);
+        for (int session = 0; session < 100; session++) {
+            String prompt = prompt(random, 3);
+            int cut = prompt.length() / 3;
+            DiffEngine diff = new DiffEngine(prompt.substring(0, cut));
+            StringBuilder typed = new StringBuilder();
+            for (int i = 0; i < cut + 2 && i < prompt.length(); i++) {
+                key(diff, typed, prompt.charAt(i));
+            }
+            diff.appendTarget(prompt.substring(cut));
+            for (int i = typed.length(); i < prompt.length(); i++) {
+                key(diff, typed, random.nextInt(30) == 0 ? 'q' : prompt.charAt(i));
+            }
+            assertSameAsFresh(prompt, typed.toString(), diff);
+        }
+    }
+
+    private static void assertSameAsFresh(String prompt, String typed, DiffEngine diff) {
+        DiffEngine fresh = new DiffEngine(prompt);
+        fresh.insert(0, typed);
+        assertArrayEquals(counts(fresh), counts(diff), typed);
+        assertEquals(fresh.getMistakes(), diff.getMistakes());
+        assertEquals(fresh.getWordCount(), diff.getWordCount());
+        for (int i = 0; i < typed.length(); i++) {
+            assertEquals(fresh.isMismatch(i), diff.isMismatch(i), "mismatch bit " + i);
+        }
+    }
+
+    // retiring the window counts the same as keeping everything, as long as the path stays in the band
+    @Test
+    void retiredWindowMatchesExact() {
+        Random random = new Random(23);
+        for (int session = 0; session < 100; session++) {
+            String prompt = prompt(random, 4);
+            DiffEngine diff = new DiffEngine(prompt);
+            StringBuilder typed = new StringBuilder();
+            for (int i = 0; i < prompt.length(); i++) {
+                char c = prompt.charAt(i);
+                if (random.nextInt(40) == 0) continue;
+                c = random.nextInt(40) == 0 ? 'q' : c;
+                diff.insert(diff.length(), String.valueOf(c)); // window offset, not the whole text
+                typed.append(c);
+                if (diff.length() > 160 && diff.getTarget().length() > 120) diff.retire(120);
+            }
+            assertArrayEquals(exact(prompt, typed.toString()), counts(diff), typed::toString);
+        }
+    }
+
+    // doubled words keep the path behind the typing, retiring the whole window
+    // then leaves the band behind the first prompt column still there and it
+    // has to pick up from there (e6e61d0, before it every count went to 0)
+    @Test
+    void bandRecoversAfterRetiringPastIt() {
+        String sentence = "the quick brown fox jumps over the lazy dog ";
+        String prompt = sentence.repeat(20);
+        DiffEngine diff = new DiffEngine(prompt);
+        StringBuilder doubled = new StringBuilder();
+        for (String word : sentence.split(" ")) doubled.append(word).append(' ').append(word).append(' ');
+        diff.insert(0, doubled);
+        assertTrue(counts(diff)[2] > 2 * BandedAligner.BAND, "the path lags the typing by more than the band");
+        diff.retire(diff.length());
+
+        SessionStats stats = new SessionStats();
+        int correctAt120 = 0;
+        for (int i = sentence.length(); i < 200; i++) {
+            diff.insert(diff.length(), prompt.substring(i, i + 1));
+            int accuracy = diff.fillAlignment(stats);
+            assertTrue(stats.correctChars >= doubled.length() / 2, "lost the retired matches at " + i);
+            assertTrue(accuracy < 100, "fell back to an empty alignment at " + i);
+            assertEquals(diff.totalLength(), stats.correctChars + stats.substitutedChars + stats.insertedChars,
+                "typed = correct + substituted + inserted at " + i);
+            if (i == 120) correctAt120 = stats.correctChars;
+        }
+        assertEquals(79, stats.correctChars - correctAt120, "back in step, every char after it counts");
+    }
+}
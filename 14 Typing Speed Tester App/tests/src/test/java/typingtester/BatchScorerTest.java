@@ -0,0 +1,114 @@
+package typingtester;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+// a transcript scored on several threads comes out in input order, with the
+// numbers a TypingSession gives for the same record
+class BatchScorerTest {
+    private static final int RECORDS = 3500; // a few chunks' worth
+
+    private static final class Record {
+        final long line;
+        final double seconds;
+        final String prompt, typed;
+
+        Record(long line, double seconds, String prompt, String typed) {
+            this.line = line;
+            this.seconds = seconds;
+            this.prompt = prompt;
+            this.typed = typed;
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+
+    private static String tenths(double value) {
+        long tenths = Math.round(value * 10);
+        return (tenths < 0 ? "-" : "") + Math.abs(tenths) / 10 + "." + Math.abs(tenths) % 10;
+    }
+
+    @Test
+    void scoresInInputOrderAndLikeTheSession() throws IOException {
+        Random random = new Random(24);
+        List<String> passages = new ArrayList<>();
+        for (String level : Passages.LEVELS) {
+            for (String passage : Passages.DIFFICULTY_TEXTS.get(level)) passages.add(passage);
+        }
+        String[] malformed = {
+            "abc\tprompt\ttyped",     // seconds isn't a number
+            "0\tprompt\ttyped",       // no time taken
+            "12\tprompt only",        // one tab
+            "12\tprompt\ttyped\tmore", // three tabs
+            "12\tprompt\t",           // nothing typed
+            "12\tprompt\ttyped\\",    // dangling backslash
+        };
+
+        StringBuilder tsv = new StringBuilder("# seconds, prompt, typed\n");
+        List<Record> records = new ArrayList<>();
+        long lines = 1;
+        int skipped = 0;
+        for (int i = 0; i < RECORDS; i++) {
+            if (i % 500 == 250) {
+                tsv.append(malformed[skipped++ % malformed.length]).append('\n');
+                lines++;
+            }
+            if (i % 700 == 3) {
+                tsv.append('\n'); // blank lines aren't records
+                lines++;
+            }
+            String prompt = passages.get(random.nextInt(passages.size()));
+            if (i % 100 == 7) prompt = prompt.replace(' ', '\t') + "\\\n"; // escapes in the text
+            StringBuilder typed = new StringBuilder(prompt.substring(0, 1 + random.nextInt(prompt.length())));
+            for (int typo = random.nextInt(4); typo > 0; typo--) {
+                typed.setCharAt(random.nextInt(typed.length()), (char) ('a' + random.nextInt(26)));
+            }
+            double seconds = (5 + random.nextInt(1200)) / 10.0;
+            tsv.append(seconds).append('\t').append(escape(prompt)).append('\t').append(escape(typed.toString())).append('\n');
+            records.add(new Record(++lines, seconds, prompt, typed.toString()));
+        }
+
+        StringWriter out = new StringWriter();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            BatchScorer scorer = new BatchScorer(pool, out);
+            scorer.score("input.tsv", new ByteArrayInputStream(tsv.toString().getBytes(StandardCharsets.UTF_8)));
+            scorer.finish();
+            assertEquals(RECORDS, scorer.scored());
+            assertEquals(skipped, scorer.skipped());
+        } finally {
+            pool.shutdown();
+        }
+
+        String[] rows = out.toString().split("\n");
+        assertEquals(RECORDS, rows.length);
+        for (int i = 0; i < RECORDS; i++) {
+            Record record = records.get(i);
+            TypingSession session = new TypingSession(record.prompt);
+            session.start();
+            session.insert(0, 0, record.typed);
+            SessionStats stats = session.complete((long) (record.seconds * 1e9));
+
+            String[] columns = rows[i].split(",");
+            assertEquals("input.tsv", columns[0]);
+            assertEquals(String.valueOf(record.line), columns[1], "record " + i);
+            assertEquals(tenths(record.seconds), columns[2]);
+            assertEquals(tenths(stats.wpm), columns[3], "wpm of record " + i);
+            assertEquals(String.valueOf(stats.accuracy), columns[4], "accuracy of record " + i);
+            assertEquals(stats.skillLevel, columns[5], "skill level of record " + i);
+            assertEquals(String.valueOf(stats.correctChars), columns[7]);
+            assertEquals(String.valueOf(stats.omittedChars), columns[10]);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package typingtester;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// export then import gives the same rows back, and the hand rolled date
+// codec agrees with java.time
+class HistoryCsvTest {
+    private static final long MINUTE = 60_000L;
+    private static final long DAY = 86_400_000L;
+    private static final String[] DIFFICULTIES = new String[Passages.LEVELS.length + 1];
+
+    static {
+        System.arraycopy(Passages.LEVELS, 0, DIFFICULTIES, 0, Passages.LEVELS.length);
+        DIFFICULTIES[Passages.LEVELS.length] = "Custom";
+    }
+
+    private static final HistoryCsv.Progress NO_PROGRESS = new HistoryCsv.Progress() {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void update(long done, long total) { }
+    };
+
+    // what the csv can hold: tenths, whole minutes, whole key ms, a date within
+    // the last year that reads back as one instant (no feb 29, no hour the
+    // clocks go back over). every fourth row has no key timings, like an import
+    private static HistoryStore history(Random random, int rows) {
+        ZoneRules rules = ZoneId.systemDefault().getRules();
+        long now = System.currentTimeMillis() / MINUTE * MINUTE;
+        HistoryStore history = new HistoryStore();
+        while (history.size() < rows) {
+            long epoch = now - random.nextInt(300) * DAY - random.nextInt(24 * 60) * MINUTE;
+            LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(epoch), ZoneId.systemDefault());
+            if (local.getMonthValue() == 2 && local.getDayOfMonth() == 29 || rules.getValidOffsets(local).size() != 1) continue;
+            boolean timed = random.nextInt(4) != 0;
+            int p50 = timed ? 60 + random.nextInt(200) : 0;
+            int p90 = timed ? p50 + random.nextInt(300) : 0;
+            int p99 = timed ? p90 + random.nextInt(Character.MAX_VALUE - p90) : 0;
+            history.add(random.nextInt(2000) / 10.0, random.nextInt(101), random.nextInt(6000) / 10.0,
+                DIFFICULTIES[random.nextInt(DIFFICULTIES.length)], random.nextInt(50), epoch, p50, p90, p99);
+        }
+        return history;
+    }
+
+    private static List<HistoryBatch> read(byte[] csv, int[] skipped) throws IOException {
+        List<HistoryBatch> batches = new ArrayList<>();
+        skipped[0] = HistoryCsv.read(Channels.newChannel(new ByteArrayInputStream(csv)), csv.length, batches::add, NO_PROGRESS);
+        return batches;
+    }
+
+    @Test
+    void exportThenImportIsLossless() throws IOException {
+        HistoryStore history = history(new Random(8), 40_000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(history.size(), HistoryCsv.write(Channels.newChannel(out), history, NO_PROGRESS));
+
+        int[] skipped = new int[1];
+        List<HistoryBatch> batches = read(out.toByteArray(), skipped);
+        assertEquals(0, skipped[0]);
+        assertEquals(3, batches.size());
+        assertEquals(HistoryCsv.BATCH_SIZE, batches.get(0).size);
+
+        HistoryStore imported = new HistoryStore();
+        for (HistoryBatch batch : batches) imported.addAll(batch);
+        assertEquals(history.size(), imported.size());
+        for (int i = 0; i < history.size(); i++) {
+            assertEquals(history.wpm(i), imported.wpm(i), "wpm " + i);
+            assertEquals(history.accuracy(i), imported.accuracy(i), "accuracy " + i);
+            assertEquals(history.timeSeconds(i), imported.timeSeconds(i), "time " + i);
+            assertEquals(history.epochMillis(i), imported.epochMillis(i), "date " + i);
+            assertEquals(history.difficultyOrdinal(i), imported.difficultyOrdinal(i), "difficulty " + i);
+            assertEquals(history.level(i), imported.level(i), "level " + i);
+            assertEquals(history.keyP50Ms(i), imported.keyP50Ms(i), "key p50 " + i);
+            assertEquals(history.keyP90Ms(i), imported.keyP90Ms(i), "key p90 " + i);
+            assertEquals(history.keyP99Ms(i), imported.keyP99Ms(i), "key p99 " + i);
+        }
+    }
+
+    @Test
+    void importSkipsBadLinesAndTakesOldFilesAndWindowsLineEnds() throws IOException {
+        // rows from before the key timings were exported, then current ones
+        String csv = "Test,Date,WPM,Accuracy,Time,Difficulty,Level\r\n"
+            + "1,03/14 09:26,72.5,96,41.3,Easy,3\r\n"
+            + "2,not a date,80,90,30,Easy,4\r\n"
+            + "\r\n"
+            + "3,03/15 18:05,65,100,60,Custom,2\r\n"
+            + "4,03/15 18:06,66,100,60,Easy,2,90,180\r\n"
+            + "5,03/15 18:07,67,100,60,Easy,2,90,180,70000\r\n"
+            + "6,03/16 07:30,70,98,30,Easy,2,95,160,410"; // no newline at the end
+        int[] skipped = new int[1];
+        List<HistoryBatch> batches = read(csv.getBytes(StandardCharsets.US_ASCII), skipped);
+        assertEquals(3, skipped[0]);
+        assertEquals(1, batches.size());
+        HistoryBatch batch = batches.get(0);
+        assertEquals(3, batch.size);
+        assertEquals(72.5, batch.wpm[0]);
+        assertEquals(41.3, batch.timeSeconds[0]);
+        assertEquals(Passages.levelOrdinal("Easy"), batch.difficultyOrdinal[0]);
+        assertEquals(3, batch.level[0]);
+        assertEquals(-1, batch.difficultyOrdinal[1]);
+        assertEquals(100, batch.accuracy[1]);
+        assertEquals(0, batch.keyP50[1]);
+        assertEquals(2, batch.level[2]);
+        assertEquals(95, batch.keyP50[2]);
+        assertEquals(160, batch.keyP90[2]);
+        assertEquals(410, batch.keyP99[2]);
+    }
+
+    // every 15 minutes for a year, zones with an hour, a half hour and no dst shift
+    @Test
+    void dateCodecAgreesWithJavaTime() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd HH:mm");
+        byte[] buf = new byte[DateCodec.DATE_LENGTH];
+        for (String id : new String[] {"America/New_York", "Asia/Kolkata", "Australia/Lord_Howe", "UTC"}) {
+            ZoneId zone = ZoneId.of(id);
+            ZoneRules rules = zone.getRules();
+            DateCodec codec = new DateCodec(zone);
+            long start = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli();
+            for (long t = start; t < start + 366 * DAY; t += 15 * MINUTE) {
+                LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(t), zone);
+                assertEquals(DateCodec.DATE_LENGTH, codec.format(t, buf, 0));
+                String formatted = new String(buf, StandardCharsets.US_ASCII);
+                assertEquals(local.format(formatter), formatted, id + " " + Instant.ofEpochMilli(t));
+                if (rules.getValidOffsets(local).size() != 1) continue;
+                assertEquals(t, codec.parse(buf, 0, buf.length, codec.year(t), t), id + " " + formatted);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package typingtester;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// ranks from the Fenwick tree and the kept top results against a plain count
+class LeaderboardIndexTest {
+    private static final int EASY = 0, HARD = 2;
+
+    @Test
+    void equalResultsShareARank() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        assertEquals(1, index.submit(EASY, "a", 50, 90, 0));
+        assertEquals(1, index.submit(EASY, "b", 50.04, 100, 0)); // rounds to the same tenth
+        assertEquals(1, index.submit(EASY, "c", 60, 80, 0));
+        assertEquals(2, index.submit(EASY, "d", 50, 95, 0));
+        assertEquals(2, index.rank(EASY, 50));
+        assertEquals(5, index.rank(EASY, 49.9));
+        assertEquals(2, index.rank(EASY, 50.1));
+        assertEquals(1, index.rank(EASY, 60));
+
+        // equal WPM, better accuracy first, then whoever got there first
+        List<String> order = new ArrayList<>();
+        for (LeaderboardIndex.Entry e : index.top(EASY, 10)) order.add(e.player);
+        assertEquals(List.of("c", "b", "d", "a"), order);
+    }
+
+    @Test
+    void fasterThanTheCapCountsAsTheCap() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        assertEquals(1, index.submit(EASY, "a", 299.9, 100, 0));
+        assertEquals(1, index.submit(EASY, "b", 300, 100, 0));
+        assertEquals(1, index.submit(EASY, "c", 1000, 100, 0));
+        assertEquals(1, index.rank(EASY, 300));
+        assertEquals(1, index.rank(EASY, 5000));
+        assertEquals(3, index.rank(EASY, 299.9));
+        assertEquals(LeaderboardIndex.MAX_TENTHS, index.top(EASY, 1).get(0).wpmTenths);
+    }
+
+    @Test
+    void zeroAndBelowRankLast() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.submit(EASY, "a", 0.1, 100, 0);
+        assertEquals(2, index.submit(EASY, "b", 0, 100, 0));
+        assertEquals(2, index.submit(EASY, "c", -3, 100, 0));
+        assertEquals(2, index.rank(EASY, 0));
+        assertEquals(3, index.total(EASY));
+        assertEquals(0, index.top(EASY, 3).get(2).wpmTenths);
+    }
+
+    @Test
+    void ranksMatchACount() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        Random random = new Random(20);
+        List<Integer> submitted = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            double wpm = random.nextInt(10) == 0 ? random.nextInt(3) * 150 : random.nextInt(3200) / 10.0;
+            int rank = index.submit(HARD, "p" + i, wpm, 100, i);
+            int tenths = LeaderboardIndex.tenths(wpm);
+            submitted.add(tenths);
+            assertEquals(1 + submitted.stream().filter(t -> t > tenths).count(), rank, "rank of " + wpm);
+        }
+        for (int tenths = 0; tenths <= LeaderboardIndex.MAX_TENTHS; tenths++) {
+            int t = tenths;
+            assertEquals(1 + submitted.stream().filter(s -> s > t).count(), index.rank(HARD, tenths / 10.0));
+        }
+        assertEquals(0, index.total(EASY)); // boards don't share counts
+        assertEquals(1, index.rank(EASY, 0));
+    }
+
+    @Test
+    void topKeepsTheFastestInOrder() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        Random random = new Random(21);
+        List<LeaderboardIndex.Entry> all = new ArrayList<>();
+        for (int i = 0; i < LeaderboardIndex.KEEP * 3; i++) {
+            double wpm = 30 + random.nextInt(400) / 10.0;
+            int accuracy = 90 + random.nextInt(11);
+            index.submit(EASY, "p" + i, wpm, accuracy, i);
+            all.add(new LeaderboardIndex.Entry("p" + i, LeaderboardIndex.tenths(wpm), accuracy, i, i));
+        }
+        all.sort(Comparator.<LeaderboardIndex.Entry>comparingInt(e -> -e.wpmTenths)
+            .thenComparingInt(e -> -e.accuracy)
+            .thenComparingLong(e -> e.epochMillis)); // submit order
+        List<LeaderboardIndex.Entry> top = index.top(EASY, LeaderboardIndex.KEEP + 10);
+        assertEquals(LeaderboardIndex.KEEP, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(all.get(i).player, top.get(i).player, "place " + (i + 1));
+        }
+        assertEquals(10, index.top(EASY, 10).size());
+        assertEquals(all.get(9).player, index.top(EASY, 10).get(9).player);
+        assertEquals(LeaderboardIndex.KEEP * 3, index.total(EASY));
+    }
+}
@@ -0,0 +1,140 @@
+package typingtester;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// ranks and quantiles of the KLL sketch against the sorted values
+class QuantileSketchTest {
+    private static final double RANK_ERROR = 0.015; // what the class comment promises at k = 200
+    private static final int N = 200_000;
+
+    private static float[] wpms(long seed, int n) {
+        Random random = new Random(seed);
+        float[] values = new float[n];
+        for (int i = 0; i < n; i++) values[i] = (float) (60 + 15 * random.nextGaussian());
+        return values;
+    }
+
+    // values below x in a sorted array
+    private static int below(float[] sorted, float x) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int atOrBelow(float[] sorted, float x) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= x) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static void assertWithinBound(QuantileSketch sketch, float[] sorted) {
+        int n = sorted.length;
+        assertEquals(n, sketch.count());
+        assertEquals(sorted[0], sketch.min());
+        assertEquals(sorted[n - 1], sketch.max());
+        for (int p = 1; p < 100; p++) {
+            double q = p / 100.0;
+            // the true rank of the returned value has to straddle q, give or take the error
+            float value = sketch.quantile(q);
+            assertTrue(below(sorted, value) <= (q + RANK_ERROR) * n && atOrBelow(sorted, value) >= (q - RANK_ERROR) * n,
+                "quantile " + q + " = " + value);
+            float probe = sorted[(int) (q * n)];
+            assertEquals((double) below(sorted, probe) / n, sketch.rank(probe, false), RANK_ERROR, "rank of " + probe);
+            assertEquals((double) atOrBelow(sorted, probe) / n, sketch.rank(probe, true), RANK_ERROR, "inclusive rank of " + probe);
+        }
+    }
+
+    @Test
+    void exactUntilTheFirstCompaction() {
+        float[] values = wpms(1, 150);
+        QuantileSketch sketch = new QuantileSketch();
+        for (float v : values) sketch.add(v);
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int p = 1; p <= 100; p++) {
+            double q = p / 100.0;
+            assertEquals(sorted[(int) Math.ceil(q * sorted.length) - 1], sketch.quantile(q), "quantile " + q);
+        }
+        for (float v : sorted) {
+            assertEquals((double) below(sorted, v) / sorted.length, sketch.rank(v, false));
+        }
+    }
+
+    @Test
+    void rankErrorStaysWithinTheBound() {
+        float[] values = wpms(2, N);
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+        QuantileSketch shuffled = new QuantileSketch(), ascending = new QuantileSketch(), descending = new QuantileSketch();
+        for (int i = 0; i < N; i++) {
+            shuffled.add(values[i]);
+            ascending.add(sorted[i]);
+            descending.add(sorted[N - 1 - i]);
+        }
+        assertWithinBound(shuffled, sorted);
+        assertWithinBound(ascending, sorted);
+        assertWithinBound(descending, sorted);
+    }
+
+    @Test
+    void mergedSketchesKeepTheBound() {
+        float[] values = wpms(3, N);
+        QuantileSketch merged = new QuantileSketch();
+        for (int part = 0; part < 4; part++) {
+            QuantileSketch sketch = new QuantileSketch();
+            for (int i = part; i < N; i += 4) sketch.add(values[i]);
+            merged.merge(sketch);
+        }
+        float[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertWithinBound(merged, sorted);
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new QuantileSketch(100)));
+    }
+
+    @Test
+    void writeAndReadGiveTheSameAnswers() throws IOException {
+        QuantileSketch sketch = new QuantileSketch();
+        for (float v : wpms(4, N)) sketch.add(v);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.write(new DataOutputStream(bytes));
+        QuantileSketch read = QuantileSketch.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(sketch.count(), read.count());
+        assertEquals(sketch.min(), read.min());
+        assertEquals(sketch.max(), read.max());
+        for (int p = 0; p <= 100; p++) {
+            assertEquals(sketch.quantile(p / 100.0), read.quantile(p / 100.0));
+            float probe = 20 + p;
+            assertEquals(sketch.rank(probe, false), read.rank(probe, false));
+            assertEquals(sketch.rank(probe, true), read.rank(probe, true));
+        }
+    }
+
+    @Test
+    void readRejectsACountTheLevelsDontAddUpTo() throws IOException {
+        QuantileSketch sketch = new QuantileSketch();
+        for (float v : wpms(5, 1000)) sketch.add(v);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.write(new DataOutputStream(bytes));
+        byte[] data = bytes.toByteArray();
+        data[9]++; // low byte of the count, after k (2 bytes) and the count's first 7
+        assertThrows(IOException.class, () -> QuantileSketch.read(new DataInputStream(new ByteArrayInputStream(data))));
+    }
+}
@@ -0,0 +1,122 @@
+package typingtester;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// a recorded session played back gives the stats the live one ended with
+class SessionRecordingTest {
+    private static final long BASE = 5_000_000_000_000L; // nanoTime is big, the first delta has to survive it
+    private static final String PROMPT = "Café owners — and the odd 𝄞 player — keep the quick brown fox fed.";
+
+    private long nanos = BASE;
+    private final Random random = new Random(7);
+
+    private long tick() {
+        return nanos += 40_000_000L + random.nextInt(200_000_000);
+    }
+
+    // types the prompt into the session with a few mistakes, some backspaced
+    private int type(TypingSession session, String prompt, int offset) {
+        for (int i = 0; i < prompt.length(); i++) {
+            char c = prompt.charAt(i);
+            if (random.nextInt(15) == 0) {
+                session.insert(tick(), offset++, "x");
+                if (random.nextBoolean()) session.remove(tick(), --offset, 1);
+            }
+            session.insert(tick(), offset++, String.valueOf(c));
+        }
+        return offset;
+    }
+
+    private static void assertSameStats(SessionStats expected, SessionStats actual) {
+        assertEquals(expected.seconds, actual.seconds);
+        assertEquals(expected.wpm, actual.wpm);
+        assertEquals(expected.netWpm, actual.netWpm);
+        assertEquals(expected.cpm, actual.cpm);
+        assertEquals(expected.keystrokesPerChar, actual.keystrokesPerChar);
+        assertEquals(expected.accuracy, actual.accuracy);
+        assertEquals(expected.mistakes, actual.mistakes);
+        assertEquals(expected.typedChars, actual.typedChars);
+        assertEquals(expected.skillLevel, actual.skillLevel);
+        assertEquals(expected.correctChars, actual.correctChars);
+        assertEquals(expected.substitutedChars, actual.substitutedChars);
+        assertEquals(expected.insertedChars, actual.insertedChars);
+        assertEquals(expected.omittedChars, actual.omittedChars);
+        assertEquals(expected.keyP50Ms, actual.keyP50Ms);
+        assertEquals(expected.keyP90Ms, actual.keyP90Ms);
+        assertEquals(expected.keyP99Ms, actual.keyP99Ms);
+        assertEquals(expected.keyMaxMs, actual.keyMaxMs);
+    }
+
+    @Test
+    void replayGivesTheOriginalStats() throws IOException {
+        SessionRecording recording = new SessionRecording();
+        TypingSession session = new TypingSession(PROMPT);
+        session.setRecording(recording);
+        session.start();
+        int typed = type(session, PROMPT.substring(0, 30), 0);
+        session.pause(tick());
+        nanos += 30_000_000_000L;
+        session.resume(tick());
+        session.remove(tick(), typed - 4, 4);
+        type(session, PROMPT.substring(26), typed - 4);
+        SessionStats stats = session.complete(tick());
+
+        assertSameStats(stats, SessionRecording.replay(recording.toByteArray(), SessionRecording.MAX_SPEED));
+    }
+
+    @Test
+    void timedReplayFollowsAppendsAndRetires() throws IOException {
+        SessionRecording recording = new SessionRecording();
+        TypingSession session = new TypingSession(PROMPT);
+        session.setRecording(recording);
+        session.setTimeLimit(15);
+        session.start();
+        int offset = 0;
+        for (int round = 0; round < 4; round++) {
+            offset = type(session, session.getTarget().substring(offset), offset);
+            session.appendTarget(" " + PROMPT);
+            offset -= session.retireTyped(10);
+        }
+        // the clock stops at the limit, not at the last keystroke
+        SessionStats stats = session.complete(nanos + 60_000_000_000L);
+        assertEquals(15.0, stats.seconds);
+
+        assertSameStats(stats, SessionRecording.replay(recording.toByteArray(), SessionRecording.MAX_SPEED));
+    }
+
+    @Test
+    void unfinishedRecordingStopsAtTheLastEvent() throws IOException {
+        SessionRecording recording = new SessionRecording();
+        TypingSession session = new TypingSession(PROMPT);
+        session.setRecording(recording);
+        session.start();
+        type(session, PROMPT.substring(0, 20), 0);
+
+        assertSameStats(session.snapshot(nanos, new SessionStats()),
+            SessionRecording.replay(recording.toByteArray(), SessionRecording.MAX_SPEED));
+    }
+
+    @Test
+    void badRecordingsThrow() {
+        SessionRecording recording = new SessionRecording();
+        TypingSession session = new TypingSession(PROMPT);
+        session.setRecording(recording);
+        session.start();
+        type(session, PROMPT, 0);
+        session.complete(tick());
+        byte[] data = recording.toByteArray();
+
+        byte[] badMagic = data.clone();
+        badMagic[0] ^= 1;
+        assertThrows(IOException.class, () -> SessionRecording.replay(badMagic, SessionRecording.MAX_SPEED));
+        // the complete event's varint loses its last byte
+        byte[] cut = Arrays.copyOf(data, data.length - 1);
+        assertThrows(IOException.class, () -> SessionRecording.replay(cut, SessionRecording.MAX_SPEED));
+    }
+}